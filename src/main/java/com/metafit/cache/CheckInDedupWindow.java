@@ -0,0 +1,155 @@
+package com.metafit.cache;
+
+import com.metafit.dto.response.DeviceCheckInResponse;
+import com.metafit.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded window of recent device check-in results by idempotency key
+ *
+ * A retried webhook carrying a key seen within the window gets the original
+ * response instead of being processed again; concurrent retries wait for the
+ * first attempt. Keys are scoped by tenant and device API key.
+ *
+ * Single check-ins go through {@link #execute}; batch replays {@link #claim} their
+ * keys up front and complete the claims once their transaction has committed.
+ */
+@Slf4j
+@Component
+public class CheckInDedupWindow {
+
+    private static final long IN_FLIGHT_WAIT_MS = 30000;
+
+    private final Map<String, Entry> entries;
+    private final long windowMs;
+
+    public CheckInDedupWindow(
+            @Value("${device.check-in.dedup-window-ms:600000}") long windowMs,
+            @Value("${device.check-in.dedup-max-entries:50000}") int maxEntries) {
+        this.windowMs = windowMs;
+        // Insertion order equals expiry order, so the eldest entry is always the first to go
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries || eldest.getValue().expiresAt() <= System.currentTimeMillis();
+            }
+        };
+    }
+
+    /**
+     * Run a check-in once per idempotency key within the window
+     *
+     * Requests without a key are always processed. Failed attempts are not remembered.
+     */
+    public DeviceCheckInResponse execute(String apiKey, String idempotencyKey,
+                                         Supplier<DeviceCheckInResponse> checkIn) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkIn.get();
+        }
+
+        Claim claim = claim(apiKey, idempotencyKey);
+        if (!claim.owner()) {
+            log.debug("Duplicate check-in for idempotency key: {}", idempotencyKey);
+            return await(claim, checkIn);
+        }
+
+        try {
+            DeviceCheckInResponse response = checkIn.get();
+            complete(claim, response);
+            return response;
+        } catch (RuntimeException ex) {
+            fail(claim, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Claim a key for a check-in the caller processes itself
+     *
+     * The owner of a claim must {@link #complete} or {@link #fail} it; any other claimant gets
+     * the first attempt's result through {@link #await}.
+     */
+    public Claim claim(String apiKey, String idempotencyKey) {
+        String key = key(apiKey, idempotencyKey);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                return new Claim(key, entry.result(), false);
+            }
+            CompletableFuture<DeviceCheckInResponse> result = new CompletableFuture<>();
+            entries.put(key, new Entry(result, now + windowMs));
+            return new Claim(key, result, true);
+        }
+    }
+
+    /**
+     * Publish the committed result of an owned claim to waiting and later retries
+     */
+    public void complete(Claim claim, DeviceCheckInResponse response) {
+        claim.result().complete(response);
+    }
+
+    /**
+     * Forget an owned claim whose check-in failed, so the key can be processed again
+     */
+    public void fail(Claim claim, RuntimeException cause) {
+        synchronized (entries) {
+            Entry entry = entries.get(claim.key());
+            if (entry != null && entry.result() == claim.result()) {
+                entries.remove(claim.key());
+            }
+        }
+        claim.result().completeExceptionally(cause);
+    }
+
+    /**
+     * Result of the first attempt behind a claim; runs the check-in itself if that attempt failed
+     */
+    public DeviceCheckInResponse await(Claim claim, Supplier<DeviceCheckInResponse> checkIn) {
+        return awaitFirstAttempt(claim.result(), checkIn);
+    }
+
+    private DeviceCheckInResponse awaitFirstAttempt(CompletableFuture<DeviceCheckInResponse> result,
+                                                    Supplier<DeviceCheckInResponse> checkIn) {
+        try {
+            return result.get(IN_FLIGHT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The first attempt failed without a result, so nothing was checked in
+            return checkIn.get();
+        } catch (TimeoutException ex) {
+            return DeviceCheckInResponse.builder()
+                    .success(false)
+                    .message("Check-in with this idempotency key is still being processed")
+                    .errorCode("IN_PROGRESS")
+                    .build();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for check-in", ex);
+        }
+    }
+
+    private String key(String apiKey, String idempotencyKey) {
+        return TenantContext.getTenantId() + ':' + apiKey + ':' + idempotencyKey;
+    }
+
+    private record Entry(CompletableFuture<DeviceCheckInResponse> result, long expiresAt) {
+    }
+
+    /**
+     * Claimed idempotency key; {@code owner} is false when an earlier attempt holds the key
+     */
+    public record Claim(String key, CompletableFuture<DeviceCheckInResponse> result, boolean owner) {
+    }
+}
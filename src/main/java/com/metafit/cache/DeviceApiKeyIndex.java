@@ -0,0 +1,128 @@
+package com.metafit.cache;
+
+import com.metafit.entity.Device;
+import com.metafit.enums.DeviceStatus;
+import com.metafit.repository.DeviceRepository;
+import com.metafit.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant index of device API key -> device snapshot
+ *
+ * The first webhook of a tenant loads all of its devices, outside any map lock; after
+ * that a known or unknown key is answered from memory. Device writes update the index
+ * once their transaction commits (and are replayed onto a reload in flight), and each
+ * tenant index is reloaded after its TTL to pick up changes made on other nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceApiKeyIndex {
+
+    private static final String DEFAULT_TENANT = "default";
+
+    private final DeviceRepository deviceRepository;
+
+    private final TenantStateMap<TenantIndex> tenants = new TenantStateMap<>();
+
+    @Value("${device.api-key-index.ttl-ms:300000}")
+    private long ttlMs;
+
+    /**
+     * Look up a device of the current tenant by API key
+     *
+     * @return empty if no device has this key
+     */
+    public Optional<DeviceSnapshot> findByApiKey(String apiKey) {
+        if (apiKey == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index().devices().get(apiKey));
+    }
+
+    /**
+     * Refresh the indexed snapshot of a device of the current tenant after commit
+     */
+    public void update(Device device) {
+        if (device.getApiKey() == null) {
+            return;
+        }
+
+        String tenantCode = currentTenant();
+        String apiKey = device.getApiKey();
+        DeviceSnapshot snapshot = DeviceSnapshot.from(device);
+
+        afterCommit(() -> tenants.update(tenantCode, index -> {
+            index.devices().put(apiKey, snapshot);
+            log.debug("Updated API key index entry for device: {}", snapshot.id());
+        }));
+    }
+
+    /**
+     * Set the status of indexed devices of the current tenant after commit
+     */
+    public void updateStatus(Collection<Long> deviceIds, DeviceStatus status) {
+        if (deviceIds.isEmpty()) {
+            return;
+        }
+
+        String tenantCode = currentTenant();
+        Set<Long> ids = Set.copyOf(deviceIds);
+
+        afterCommit(() -> tenants.update(tenantCode, index ->
+                index.devices().replaceAll((apiKey, snapshot) -> ids.contains(snapshot.id())
+                        ? new DeviceSnapshot(snapshot.id(), snapshot.name(), snapshot.deviceType(), status,
+                        snapshot.active())
+                        : snapshot)));
+    }
+
+    private TenantIndex index() {
+        return tenants.get(currentTenant(),
+                index -> index.expiresAt() > System.currentTimeMillis(),
+                code -> load(code, System.currentTimeMillis()));
+    }
+
+    private TenantIndex load(String tenantCode, long now) {
+        Map<String, DeviceSnapshot> devices = new ConcurrentHashMap<>();
+        for (Device device : deviceRepository.findAll()) {
+            if (device.getApiKey() != null) {
+                devices.put(device.getApiKey(), DeviceSnapshot.from(device));
+            }
+        }
+
+        log.debug("Loaded API key index for tenant {} ({} devices)", tenantCode, devices.size());
+        return new TenantIndex(devices, now + ttlMs);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String currentTenant() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenantCode != null ? tenantCode : DEFAULT_TENANT;
+    }
+
+    private record TenantIndex(Map<String, DeviceSnapshot> devices, long expiresAt) {
+    }
+}
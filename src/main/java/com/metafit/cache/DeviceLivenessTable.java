@@ -0,0 +1,311 @@
+package com.metafit.cache;
+
+import com.metafit.entity.Device;
+import com.metafit.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory device liveness per tenant (deviceId -> last heartbeat)
+ *
+ * Each tenant's table is keyed by primitive device id: sorted id and entry arrays that
+ * are read without locking and copied only when a device is first seen or removed.
+ * Heartbeats only touch this table; the latest ping of each device is written
+ * to the devices table in one batched UPDATE per tenant by {@link #flush()}.
+ * Only online/offline transitions are reported back to the caller so that
+ * they can be logged as device events.
+ */
+@Slf4j
+@Component
+public class DeviceLivenessTable {
+
+    private static final String FLUSH_SQL = """
+            UPDATE devices
+               SET last_ping = ?,
+                   status = CASE WHEN status IN ('ONLINE', 'OFFLINE') THEN ? ELSE status END,
+                   updated_at = ?
+             WHERE id = ?
+            """;
+
+    private static final String DEFAULT_TENANT = "default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, DeviceTable> tenants = new ConcurrentHashMap<>();
+
+    @Value("${device.liveness.timeout-ms:300000}")
+    private long timeoutMs;
+
+    public DeviceLivenessTable(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Record a heartbeat for a device of the current tenant
+     *
+     * @param persistedOnline whether the device row is ONLINE (used for devices not seen yet)
+     * @return true if the device went from offline to online
+     */
+    public boolean recordPing(long deviceId, boolean persistedOnline) {
+        Liveness liveness = devices().getOrAdd(deviceId, persistedOnline);
+
+        synchronized (liveness) {
+            liveness.lastPingNanos = System.nanoTime();
+            liveness.lastPingAt = LocalDateTime.now();
+            liveness.dirty = true;
+            boolean cameOnline = !liveness.online;
+            liveness.online = true;
+            return cameOnline;
+        }
+    }
+
+    /**
+     * Online state of a device of the current tenant, falling back to its persisted status
+     */
+    public boolean isOnline(long deviceId, boolean persistedOnline) {
+        Liveness liveness = devices().get(deviceId);
+        return liveness != null ? liveness.online : persistedOnline;
+    }
+
+    /**
+     * Copy the in-memory liveness of a device onto the loaded entity
+     */
+    public void attach(Device device) {
+        Liveness liveness = devices().get(device.getId());
+        if (liveness != null) {
+            device.setLiveOnline(liveness.online);
+            device.setLiveLastPing(liveness.lastPingAt);
+        }
+    }
+
+    /**
+     * Align the in-memory state after the device status was changed in the database
+     */
+    public void setOnline(long deviceId, boolean online) {
+        Liveness liveness = devices().get(deviceId);
+        if (liveness != null) {
+            liveness.online = online;
+        }
+    }
+
+    public void remove(long deviceId) {
+        devices().remove(deviceId);
+    }
+
+    /**
+     * Ids of devices of the current tenant that are online in memory
+     */
+    public Set<Long> getOnlineDeviceIds() {
+        Set<Long> online = new HashSet<>();
+        devices().forEach((id, liveness) -> {
+            if (liveness.online) {
+                online.add(id);
+            }
+        });
+        return online;
+    }
+
+    /**
+     * Pings persisted before this time are older than the heartbeat timeout
+     */
+    public LocalDateTime staleThreshold() {
+        return LocalDateTime.now().minus(Duration.ofMillis(timeoutMs));
+    }
+
+    /**
+     * Mark devices of the current tenant offline whose last heartbeat is older than the timeout
+     *
+     * @return ids of devices that went from online to offline
+     */
+    public List<Long> expireStale() {
+        long threshold = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Long> expired = new ArrayList<>();
+
+        devices().forEach((id, liveness) -> {
+            synchronized (liveness) {
+                if (liveness.online && liveness.lastPingNanos - threshold < 0) {
+                    liveness.online = false;
+                    expired.add(id);
+                }
+            }
+        });
+
+        return expired;
+    }
+
+    /**
+     * Write the latest ping of every device that received heartbeats since the last flush
+     *
+     * @return number of devices written
+     */
+    public int flush() {
+        int written = 0;
+        for (Map.Entry<String, DeviceTable> tenant : tenants.entrySet()) {
+            written += TenantContext.callWithTenant(tenant.getKey(),
+                    () -> flushTenant(tenant.getKey(), tenant.getValue()));
+        }
+        return written;
+    }
+
+    private int flushTenant(String tenantCode, DeviceTable devices) {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        devices.forEach((id, liveness) -> {
+            synchronized (liveness) {
+                if (liveness.dirty) {
+                    liveness.dirty = false;
+                    rows.add(new Object[]{
+                            Timestamp.valueOf(liveness.lastPingAt),
+                            liveness.online ? "ONLINE" : "OFFLINE",
+                            Timestamp.valueOf(now),
+                            id
+                    });
+                }
+            }
+        });
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+            log.debug("Flushed liveness of {} devices for tenant: {}", rows.size(), tenantCode);
+            return rows.size();
+        } catch (DataAccessException ex) {
+            log.error("Failed to flush device liveness for tenant {}: {}", tenantCode, ex.getMessage());
+            markDirty(devices, rows);
+            return 0;
+        }
+    }
+
+    /**
+     * Re-marks rows of a failed flush so they are retried on the next run
+     */
+    private void markDirty(DeviceTable devices, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Liveness liveness = devices.get((Long) row[3]);
+            if (liveness != null) {
+                liveness.dirty = true;
+            }
+        }
+    }
+
+    private DeviceTable devices() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenants.computeIfAbsent(tenantCode != null ? tenantCode : DEFAULT_TENANT, code -> new DeviceTable());
+    }
+
+    /**
+     * Visitor over the entries of a {@link DeviceTable}
+     */
+    @FunctionalInterface
+    private interface EntryVisitor {
+        void visit(long deviceId, Liveness liveness);
+    }
+
+    /**
+     * Liveness entries of one tenant keyed by primitive device id
+     *
+     * Ids and entries are parallel arrays sorted by id, published together as one immutable
+     * generation; lookups binary-search the current generation, and the rare insert or
+     * removal copies it under the table's monitor.
+     */
+    private static final class DeviceTable {
+
+        private volatile Generation generation = new Generation(new long[0], new Liveness[0]);
+
+        private Liveness get(long deviceId) {
+            Generation current = generation;
+            int index = Arrays.binarySearch(current.ids, deviceId);
+            return index >= 0 ? current.entries[index] : null;
+        }
+
+        private Liveness getOrAdd(long deviceId, boolean online) {
+            Liveness liveness = get(deviceId);
+            return liveness != null ? liveness : add(deviceId, online);
+        }
+
+        private synchronized Liveness add(long deviceId, boolean online) {
+            Generation current = generation;
+            int index = Arrays.binarySearch(current.ids, deviceId);
+            if (index >= 0) {
+                return current.entries[index];
+            }
+
+            int insertAt = -index - 1;
+            int size = current.ids.length;
+            long[] ids = new long[size + 1];
+            Liveness[] entries = new Liveness[size + 1];
+            System.arraycopy(current.ids, 0, ids, 0, insertAt);
+            System.arraycopy(current.entries, 0, entries, 0, insertAt);
+            System.arraycopy(current.ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(current.entries, insertAt, entries, insertAt + 1, size - insertAt);
+
+            Liveness liveness = new Liveness(online);
+            ids[insertAt] = deviceId;
+            entries[insertAt] = liveness;
+            generation = new Generation(ids, entries);
+            return liveness;
+        }
+
+        private synchronized void remove(long deviceId) {
+            Generation current = generation;
+            int index = Arrays.binarySearch(current.ids, deviceId);
+            if (index < 0) {
+                return;
+            }
+
+            int size = current.ids.length;
+            long[] ids = new long[size - 1];
+            Liveness[] entries = new Liveness[size - 1];
+            System.arraycopy(current.ids, 0, ids, 0, index);
+            System.arraycopy(current.entries, 0, entries, 0, index);
+            System.arraycopy(current.ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(current.entries, index + 1, entries, index, size - index - 1);
+            generation = new Generation(ids, entries);
+        }
+
+        private void forEach(EntryVisitor visitor) {
+            Generation current = generation;
+            for (int i = 0; i < current.ids.length; i++) {
+                visitor.visit(current.ids[i], current.entries[i]);
+            }
+        }
+
+        private record Generation(long[] ids, Liveness[] entries) {
+        }
+    }
+
+    /**
+     * Mutable liveness entry; compound updates synchronize on the entry
+     */
+    private static final class Liveness {
+
+        private volatile long lastPingNanos;
+        private volatile LocalDateTime lastPingAt;
+        private volatile boolean online;
+        private volatile boolean dirty;
+
+        private Liveness(boolean online) {
+            this.online = online;
+            this.lastPingNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.metafit.cache;
+
+import com.metafit.entity.Device;
+import com.metafit.enums.DeviceStatus;
+import com.metafit.enums.DeviceType;
+
+/**
+ * Immutable view of the device fields needed to authenticate a webhook call
+ */
+public record DeviceSnapshot(
+        Long id,
+        String name,
+        DeviceType deviceType,
+        DeviceStatus status,
+        boolean active
+) {
+
+    public static DeviceSnapshot from(Device device) {
+        return new DeviceSnapshot(
+                device.getId(),
+                device.getName(),
+                device.getDeviceType(),
+                device.getStatus(),
+                Boolean.TRUE.equals(device.getActive())
+        );
+    }
+
+    public boolean isPersistedOnline() {
+        return DeviceStatus.ONLINE.equals(status);
+    }
+
+    /**
+     * Same rule as Device.canProcessCheckIns() given the in-memory online state
+     */
+    public boolean canProcessCheckIns(boolean liveOnline) {
+        boolean tracksLiveness = DeviceStatus.ONLINE.equals(status) || DeviceStatus.OFFLINE.equals(status);
+        return active && tracksLiveness && liveOnline;
+    }
+}
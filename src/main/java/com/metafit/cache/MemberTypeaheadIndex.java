@@ -0,0 +1,474 @@
+package com.metafit.cache;
+
+import com.metafit.dto.response.member.MemberListItem;
+import com.metafit.entity.Member;
+import com.metafit.enums.MemberStatus;
+import com.metafit.events.MembershipsExpiredEvent;
+import com.metafit.repository.MemberRepository;
+import com.metafit.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Optional in-memory member typeahead per tenant (name word prefixes, phone prefix and suffix)
+ *
+ * Each tenant's index is an immutable snapshot of sorted keys over primitive position
+ * arrays, plus a small overlay of members changed since it was built that is folded
+ * into a new snapshot once it grows. Tenants above the member bound are not indexed,
+ * idle tenants are evicted, and indexes are rebuilt from the database periodically to
+ * pick up writes made on other nodes. A rebuild runs outside any map lock; changes
+ * committed while it runs go to the current index and are replayed into the new
+ * index's overlay before it is swapped in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberTypeaheadIndex {
+
+    private static final String DEFAULT_TENANT = "default";
+    private static final int OVERLAY_COMPACT_SIZE = 256;
+
+    private final MemberRepository memberRepository;
+
+    private final TenantStateMap<TenantIndex> tenants = new TenantStateMap<>();
+
+    @Value("${member.typeahead.enabled:false}")
+    private boolean enabled;
+
+    @Value("${member.typeahead.max-members-per-tenant:100000}")
+    private int maxMembersPerTenant;
+
+    @Value("${member.typeahead.idle-evict-ms:1800000}")
+    private long idleEvictMs;
+
+    @Value("${member.typeahead.rebuild-ms:600000}")
+    private long rebuildMs;
+
+    /**
+     * Suggestions for the current tenant, or empty if the tenant is not served from memory
+     */
+    public Optional<List<MemberListItem>> search(String query, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        TenantIndex index = current();
+        if (!index.indexed) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query.trim().toLowerCase(Locale.ROOT), limit));
+    }
+
+    /**
+     * Apply a created or changed member of the current tenant once the surrounding transaction commits
+     */
+    public void upsert(Member member) {
+        if (!enabled) {
+            return;
+        }
+
+        String tenantCode = currentTenant();
+        Row row = new Row(member.getId(), member.getFullName(), member.getPhone(),
+                member.getStatus(), member.getMembershipEndDate());
+
+        afterCommit(() -> tenants.update(tenantCode, index -> index.upsert(row)));
+    }
+
+    @TransactionalEventListener
+    public void onMembershipsExpired(MembershipsExpiredEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        String tenantCode = event.tenantCode() != null ? event.tenantCode() : DEFAULT_TENANT;
+        tenants.update(tenantCode, index -> index.updateStatus(event.memberIds(), MemberStatus.EXPIRED));
+    }
+
+    /**
+     * Drops indexes of tenants that have not searched recently
+     */
+    @Scheduled(fixedDelayString = "${member.typeahead.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        tenants.removeIf((tenantCode, index) -> {
+            boolean idle = now - index.lastAccess > idleEvictMs;
+            if (idle) {
+                log.debug("Evicting idle typeahead index for tenant: {}", tenantCode);
+            }
+            return idle;
+        });
+    }
+
+    private TenantIndex current() {
+        long now = System.currentTimeMillis();
+
+        TenantIndex index = tenants.get(currentTenant(),
+                existing -> now - existing.builtAt <= rebuildMs,
+                code -> load(code, now));
+        index.lastAccess = now;
+        return index;
+    }
+
+    private TenantIndex load(String tenantCode, long now) {
+        long members = memberRepository.count();
+        if (members > maxMembersPerTenant) {
+            log.info("Tenant {} has {} members, above the typeahead bound of {}; searching the database",
+                    tenantCode, members, maxMembersPerTenant);
+            return new TenantIndex(null, now);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for (Object[] columns : memberRepository.findTypeaheadRows()) {
+            rows.add(new Row((Long) columns[0], (String) columns[1], (String) columns[2],
+                    (MemberStatus) columns[3], (LocalDate) columns[4]));
+        }
+
+        log.debug("Built typeahead index for tenant {}: {} members", tenantCode, rows.size());
+        return new TenantIndex(Snapshot.build(rows), now);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String currentTenant() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenantCode != null ? tenantCode : DEFAULT_TENANT;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] words(String name) {
+        return name == null ? new String[0] : name.toLowerCase(Locale.ROOT).trim().split("\\s+");
+    }
+
+    /**
+     * Whether every query word is a prefix of some word of the name
+     */
+    private static boolean matchesName(String name, String[] queryWords) {
+        String[] nameWords = words(name);
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String nameWord : nameWords) {
+                if (nameWord.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesPhone(String phone, String digits) {
+        return phone != null && (phone.startsWith(digits) || phone.endsWith(digits));
+    }
+
+    private record Row(Long id, String fullName, String phone, MemberStatus status, LocalDate membershipEndDate) {
+
+        private MemberListItem toItem() {
+            return MemberListItem.of(id, fullName, phone, status, membershipEndDate);
+        }
+    }
+
+    /**
+     * Per-tenant state; the snapshot is replaced wholesale and the overlay is guarded by the index monitor
+     */
+    private static final class TenantIndex {
+
+        private final boolean indexed;
+        private final long builtAt;
+        private final Map<Long, Row> overlay = new HashMap<>();
+        private volatile Snapshot snapshot;
+        private volatile long lastAccess;
+
+        private TenantIndex(Snapshot snapshot, long builtAt) {
+            this.indexed = snapshot != null;
+            this.snapshot = snapshot;
+            this.builtAt = builtAt;
+            this.lastAccess = builtAt;
+        }
+
+        private synchronized void upsert(Row row) {
+            if (!indexed) {
+                return;
+            }
+            overlay.put(row.id(), row);
+            if (overlay.size() > OVERLAY_COMPACT_SIZE) {
+                compact();
+            }
+        }
+
+        private synchronized void updateStatus(Collection<Long> ids, MemberStatus status) {
+            if (!indexed) {
+                return;
+            }
+            for (Long id : ids) {
+                Row row = overlay.containsKey(id) ? overlay.get(id) : snapshot.find(id);
+                if (row != null) {
+                    overlay.put(id, new Row(id, row.fullName(), row.phone(), status, row.membershipEndDate()));
+                }
+            }
+            if (overlay.size() > OVERLAY_COMPACT_SIZE) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            Map<Long, Row> merged = new HashMap<>();
+            for (int i = 0; i < snapshot.ids.length; i++) {
+                merged.put(snapshot.ids[i], snapshot.row(i));
+            }
+            merged.putAll(overlay);
+            snapshot = Snapshot.build(merged.values());
+            overlay.clear();
+        }
+
+        private List<MemberListItem> search(String query, int limit) {
+            if (query.isEmpty()) {
+                return List.of();
+            }
+
+            Snapshot base;
+            List<Row> changed;
+            synchronized (this) {
+                base = snapshot;
+                changed = new ArrayList<>(overlay.values());
+            }
+
+            Set<Long> changedIds = new LinkedHashSet<>();
+            for (Row row : changed) {
+                changedIds.add(row.id());
+            }
+
+            List<MemberListItem> results = new ArrayList<>(limit);
+
+            if (isDigits(query)) {
+                for (Row row : changed) {
+                    if (results.size() < limit && matchesPhone(row.phone(), query)) {
+                        results.add(row.toItem());
+                    }
+                }
+                for (int position : base.searchPhone(query, limit + changedIds.size())) {
+                    if (results.size() < limit && !changedIds.contains(base.ids[position])) {
+                        results.add(base.row(position).toItem());
+                    }
+                }
+                return results;
+            }
+
+            String[] queryWords = words(query);
+            List<Row> matches = new ArrayList<>();
+            for (Row row : changed) {
+                if (matchesName(row.fullName(), queryWords)) {
+                    matches.add(row);
+                }
+            }
+            for (int position : base.searchName(queryWords, limit + changedIds.size())) {
+                if (!changedIds.contains(base.ids[position])) {
+                    matches.add(base.row(position));
+                }
+            }
+
+            // Names starting with the query first, then alphabetical
+            matches.sort(Comparator
+                    .comparing((Row row) -> !row.fullName().toLowerCase(Locale.ROOT).startsWith(query))
+                    .thenComparing(row -> row.fullName().toLowerCase(Locale.ROOT)));
+
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                results.add(matches.get(i).toItem());
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Immutable index over one set of members; member columns are stored by position (sorted by id)
+     * and each sorted key array maps to positions through a parallel int array
+     */
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] phones;
+        private final MemberStatus[] statuses;
+        private final LocalDate[] endDates;
+
+        private final String[] nameKeys;
+        private final int[] namePositions;
+        private final String[] phoneKeys;
+        private final int[] phonePositions;
+        private final String[] reversedPhoneKeys;
+        private final int[] reversedPhonePositions;
+
+        private Snapshot(List<Row> rows) {
+            int size = rows.size();
+            ids = new long[size];
+            names = new String[size];
+            phones = new String[size];
+            statuses = new MemberStatus[size];
+            endDates = new LocalDate[size];
+
+            List<Key> nameEntries = new ArrayList<>(size * 2);
+            List<Key> phoneEntries = new ArrayList<>(size);
+            List<Key> reversedPhoneEntries = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                Row row = rows.get(i);
+                ids[i] = row.id();
+                names[i] = row.fullName();
+                phones[i] = row.phone();
+                statuses[i] = row.status();
+                endDates[i] = row.membershipEndDate();
+
+                for (String word : new LinkedHashSet<>(Arrays.asList(words(row.fullName())))) {
+                    if (!word.isEmpty()) {
+                        nameEntries.add(new Key(word, i));
+                    }
+                }
+                if (row.phone() != null) {
+                    phoneEntries.add(new Key(row.phone(), i));
+                    reversedPhoneEntries.add(new Key(new StringBuilder(row.phone()).reverse().toString(), i));
+                }
+            }
+
+            nameEntries.sort(Comparator.comparing(Key::value));
+            phoneEntries.sort(Comparator.comparing(Key::value));
+            reversedPhoneEntries.sort(Comparator.comparing(Key::value));
+
+            nameKeys = keys(nameEntries);
+            namePositions = positions(nameEntries);
+            phoneKeys = keys(phoneEntries);
+            phonePositions = positions(phoneEntries);
+            reversedPhoneKeys = keys(reversedPhoneEntries);
+            reversedPhonePositions = positions(reversedPhoneEntries);
+        }
+
+        private static Snapshot build(Collection<Row> rows) {
+            List<Row> sorted = new ArrayList<>(rows);
+            sorted.sort(Comparator.comparing(Row::id));
+            return new Snapshot(sorted);
+        }
+
+        private Row row(int position) {
+            return new Row(ids[position], names[position], phones[position], statuses[position], endDates[position]);
+        }
+
+        private Row find(Long id) {
+            int position = Arrays.binarySearch(ids, id);
+            return position >= 0 ? row(position) : null;
+        }
+
+        /**
+         * Positions of members whose name matches all query words, scanning the first word's prefix range
+         */
+        private List<Integer> searchName(String[] queryWords, int limit) {
+            List<Integer> result = new ArrayList<>();
+            BitSet seen = new BitSet(ids.length);
+            String first = queryWords[0];
+
+            // Collect every candidate up to a multiple of the limit so ranking has room to work
+            int cap = limit * 4;
+            for (int i = lowerBound(nameKeys, first); i < nameKeys.length && nameKeys[i].startsWith(first); i++) {
+                int position = namePositions[i];
+                if (!seen.get(position) && matchesName(names[position], queryWords)) {
+                    seen.set(position);
+                    result.add(position);
+                    if (result.size() >= cap) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Positions of members whose phone equals, starts with or ends with the digits, in that order
+         */
+        private List<Integer> searchPhone(String digits, int limit) {
+            Set<Integer> result = new LinkedHashSet<>();
+            String reversed = new StringBuilder(digits).reverse().toString();
+
+            for (int i = lowerBound(phoneKeys, digits);
+                 i < phoneKeys.length && phoneKeys[i].startsWith(digits) && result.size() < limit; i++) {
+                result.add(phonePositions[i]);
+            }
+            for (int i = lowerBound(reversedPhoneKeys, reversed);
+                 i < reversedPhoneKeys.length && reversedPhoneKeys[i].startsWith(reversed) && result.size() < limit; i++) {
+                result.add(reversedPhonePositions[i]);
+            }
+            return new ArrayList<>(result);
+        }
+
+        private static int lowerBound(String[] keys, String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static String[] keys(List<Key> entries) {
+            String[] keys = new String[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = entries.get(i).value();
+            }
+            return keys;
+        }
+
+        private static int[] positions(List<Key> entries) {
+            int[] positions = new int[entries.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = entries.get(i).position();
+            }
+            return positions;
+        }
+
+        private record Key(String value, int position) {
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.metafit.cache;
+
+import com.metafit.repository.AttendanceRepository;
+import com.metafit.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live in-gym occupancy per tenant for the current day
+ *
+ * Built from today's attendance rows on first use, on day rollover and after the
+ * resync interval (to pick up check-ins handled by other nodes), outside any map lock;
+ * in between it is updated by check-ins and check-outs once their transaction commits,
+ * and updates committed during a rebuild are replayed onto it. Sessions are tracked by
+ * attendance id, so replaying an update that a rebuild already saw is harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyTracker {
+
+    private static final String DEFAULT_TENANT = "default";
+
+    private final AttendanceRepository attendanceRepository;
+
+    private final TenantStateMap<TenantOccupancy> tenants = new TenantStateMap<>();
+
+    @Value("${attendance.occupancy.resync-ms:300000}")
+    private long resyncMs;
+
+    /**
+     * Today's counters for the current tenant
+     */
+    public OccupancySnapshot getSnapshot() {
+        TenantOccupancy occupancy = current();
+        synchronized (occupancy) {
+            return new OccupancySnapshot(
+                    occupancy.sessions.size(),
+                    occupancy.openSessions.size(),
+                    occupancy.sessions.size() - occupancy.openSessions.size(),
+                    occupancy.lastCheckIn);
+        }
+    }
+
+    /**
+     * Whether a member of the current tenant has an open session today
+     */
+    public boolean isCheckedIn(Long memberId) {
+        TenantOccupancy occupancy = current();
+        synchronized (occupancy) {
+            return occupancy.openSessions.containsKey(memberId);
+        }
+    }
+
+    /**
+     * Apply a check-in of the current tenant once the surrounding transaction commits
+     */
+    public void recordCheckIn(Long attendanceId, Long memberId, LocalDateTime checkInTime) {
+        String tenantCode = currentTenant();
+        afterCommit(() -> tenants.update(tenantCode, occupancy -> {
+            synchronized (occupancy) {
+                if (checkInTime.toLocalDate().equals(occupancy.day)) {
+                    occupancy.sessions.add(attendanceId);
+                    occupancy.openSessions.put(memberId, attendanceId);
+                    if (occupancy.lastCheckIn == null || checkInTime.isAfter(occupancy.lastCheckIn)) {
+                        occupancy.lastCheckIn = checkInTime;
+                    }
+                }
+            }
+        }));
+    }
+
+    /**
+     * Apply a check-out of the current tenant once the surrounding transaction commits
+     */
+    public void recordCheckOut(Long attendanceId, Long memberId) {
+        String tenantCode = currentTenant();
+        afterCommit(() -> tenants.update(tenantCode, occupancy -> {
+            synchronized (occupancy) {
+                occupancy.openSessions.remove(memberId, attendanceId);
+            }
+        }));
+    }
+
+    private TenantOccupancy current() {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+
+        return tenants.get(currentTenant(),
+                existing -> !existing.isStale(today, now, resyncMs),
+                code -> load(code, today, now));
+    }
+
+    private TenantOccupancy load(String tenantCode, LocalDate today, long now) {
+        List<Object[]> rows = attendanceRepository.findSessionsBetween(
+                today.atStartOfDay(), today.atTime(LocalTime.MAX));
+
+        TenantOccupancy occupancy = new TenantOccupancy(today, now);
+        for (Object[] row : rows) {
+            Long attendanceId = (Long) row[0];
+            Long memberId = (Long) row[1];
+            LocalDateTime checkInTime = (LocalDateTime) row[2];
+            LocalDateTime checkOutTime = (LocalDateTime) row[3];
+
+            occupancy.sessions.add(attendanceId);
+            if (checkOutTime == null) {
+                occupancy.openSessions.put(memberId, attendanceId);
+            }
+            if (occupancy.lastCheckIn == null || checkInTime.isAfter(occupancy.lastCheckIn)) {
+                occupancy.lastCheckIn = checkInTime;
+            }
+        }
+
+        log.debug("Rebuilt occupancy for tenant {}: {} sessions, {} in gym",
+                tenantCode, occupancy.sessions.size(), occupancy.openSessions.size());
+        return occupancy;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String currentTenant() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenantCode != null ? tenantCode : DEFAULT_TENANT;
+    }
+
+    /**
+     * Read-only copy of a tenant's counters
+     */
+    public record OccupancySnapshot(long totalCheckIns, long currentlyInGym, long checkedOut,
+                                    LocalDateTime lastCheckIn) {
+    }
+
+    /**
+     * Mutable per-tenant state; guarded by its own monitor
+     */
+    private static final class TenantOccupancy {
+
+        private final LocalDate day;
+        private final long loadedAt;
+        private final Set<Long> sessions = new HashSet<>();
+        private final Map<Long, Long> openSessions = new HashMap<>();
+        private LocalDateTime lastCheckIn;
+
+        private TenantOccupancy(LocalDate day, long loadedAt) {
+            this.day = day;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isStale(LocalDate today, long now, long resyncMs) {
+            return !day.equals(today) || now - loadedAt > resyncMs;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.metafit.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Per-tenant in-memory state that is (re)built from the database on demand
+ *
+ * Concurrent misses of the same tenant share one load, which runs on the calling thread
+ * outside any map lock, so a slow tenant never blocks other tenants and waiting threads park
+ * on a future instead of a monitor. Updates that arrive while a rebuild is in flight are
+ * applied to the current state and replayed onto the rebuilt one before it is published, so
+ * they must be idempotent; state removed while a rebuild is in flight is not republished.
+ */
+public class TenantStateMap<S> {
+
+    private final Map<String, S> states = new ConcurrentHashMap<>();
+    private final Map<String, Rebuild<S>> rebuilds = new ConcurrentHashMap<>();
+
+    /**
+     * Get a tenant's state, rebuilding it when missing or no longer fresh
+     */
+    public S get(String tenantCode, Predicate<S> fresh, Function<String, S> loader) {
+        S state = states.get(tenantCode);
+        if (state != null && fresh.test(state)) {
+            return state;
+        }
+
+        Rebuild<S> rebuild = rebuilds.get(tenantCode);
+        if (rebuild == null) {
+            Rebuild<S> started = new Rebuild<>();
+            rebuild = rebuilds.putIfAbsent(tenantCode, started);
+            if (rebuild == null) {
+                return load(tenantCode, started, loader);
+            }
+        }
+        return rebuild.await();
+    }
+
+    /**
+     * Apply an update to a tenant's state, and to its rebuild if one is in flight
+     * (no-op for a tenant that has neither)
+     */
+    public void update(String tenantCode, Consumer<S> update) {
+        Rebuild<S> rebuild = rebuilds.get(tenantCode);
+        if (rebuild != null) {
+            rebuild.record(update);
+        }
+        S state = states.get(tenantCode);
+        if (state != null) {
+            update.accept(state);
+        }
+    }
+
+    /**
+     * Drop a tenant's state; a rebuild in flight still answers its callers but is not kept
+     */
+    public void remove(String tenantCode) {
+        Rebuild<S> rebuild = rebuilds.get(tenantCode);
+        if (rebuild != null) {
+            rebuild.discard();
+        }
+        states.remove(tenantCode);
+    }
+
+    public void removeIf(BiPredicate<String, S> predicate) {
+        states.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+    }
+
+    private S load(String tenantCode, Rebuild<S> rebuild, Function<String, S> loader) {
+        S state;
+        try {
+            state = loader.apply(tenantCode);
+        } catch (RuntimeException | Error ex) {
+            rebuilds.remove(tenantCode, rebuild);
+            rebuild.result.completeExceptionally(ex);
+            throw ex;
+        }
+
+        rebuild.publish(state, () -> states.put(tenantCode, state));
+        rebuilds.remove(tenantCode, rebuild);
+        rebuild.result.complete(state);
+        return state;
+    }
+
+    /**
+     * A load in flight with the updates recorded since it started; guarded by its own monitor
+     */
+    private static final class Rebuild<S> {
+
+        private final CompletableFuture<S> result = new CompletableFuture<>();
+        private final List<Consumer<S>> pending = new ArrayList<>();
+        private boolean published;
+        private boolean discarded;
+
+        private synchronized void record(Consumer<S> update) {
+            // Once published the rebuilt state is in the map, where the caller applies the update itself
+            if (!published) {
+                pending.add(update);
+            }
+        }
+
+        private synchronized void discard() {
+            discarded = true;
+        }
+
+        private synchronized void publish(S state, Runnable put) {
+            pending.forEach(update -> update.accept(state));
+            pending.clear();
+            if (!discarded) {
+                put.run();
+            }
+            published = true;
+        }
+
+        private S await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.metafit.cache;
+
+import com.metafit.tenancy.TenantContext;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Small per-tenant cache holding one value per tenant for a fixed TTL
+ *
+ * Keyed by the current TenantContext; concurrent misses of the same tenant share one load.
+ * The load runs on the calling thread outside any map lock, so a slow tenant never blocks
+ * lookups of other tenants; a value invalidated while loading is returned but not kept.
+ */
+public class TenantTtlCache<V> {
+
+    private static final String DEFAULT_TENANT = "default";
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+
+    public TenantTtlCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Get the current tenant's value, loading it when missing or expired
+     */
+    public V get(Supplier<V> loader) {
+        String tenantCode = currentTenant();
+
+        while (true) {
+            Entry<V> entry = entries.get(tenantCode);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                return entry.await();
+            }
+
+            Entry<V> loading = new Entry<>();
+            boolean owner = entry == null
+                    ? entries.putIfAbsent(tenantCode, loading) == null
+                    : entries.replace(tenantCode, entry, loading);
+            if (owner) {
+                return load(tenantCode, loading, loader);
+            }
+        }
+    }
+
+    /**
+     * Drop the current tenant's value
+     */
+    public void invalidate() {
+        entries.remove(currentTenant());
+    }
+
+    /**
+     * Drop a tenant's value from outside its request, e.g. a scheduled job's event
+     */
+    public void invalidate(String tenantCode) {
+        entries.remove(tenantCode != null ? tenantCode : DEFAULT_TENANT);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private V load(String tenantCode, Entry<V> loading, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            entries.remove(tenantCode, loading);
+            loading.value.completeExceptionally(ex);
+            throw ex;
+        }
+
+        loading.expiresAt = System.currentTimeMillis() + ttlMs;
+        loading.value.complete(value);
+        return value;
+    }
+
+    private String currentTenant() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenantCode != null ? tenantCode : DEFAULT_TENANT;
+    }
+
+    /**
+     * Cached value, or a load in progress (never expired until it completes)
+     */
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private V await() {
+            try {
+                return value.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+}
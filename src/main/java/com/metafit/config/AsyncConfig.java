@@ -0,0 +1,32 @@
+package com.metafit.config;
+
+import com.metafit.tenancy.TenantContext;
+import com.metafit.tenancy.TenantTaskDecorator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+/**
+ * Async execution configuration
+ * Pool sizing comes from spring.task.execution; Spring Boot applies the tenant decorator
+ * to the auto-configured executor used by @Async, so async work runs under the caller's tenant.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return new TenantTaskDecorator();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async {}.{} failed for tenant {}: {}",
+                method.getDeclaringClass().getSimpleName(), method.getName(),
+                TenantContext.getTenantId(), ex.getMessage(), ex);
+    }
+}
@@ -1,9 +1,16 @@
 package com.metafit.config;
 
+import com.metafit.entity.master.Tenant;
+import com.metafit.repository.master.TenantRepository;
 import com.metafit.tenancy.TenantRoutingDataSource;
+import com.metafit.tenancy.TenantSnapshot;
+import com.metafit.tenancy.TenantSnapshotCache;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +25,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import javax.sql.DataSource;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Configuration for multi-tenant datasources
@@ -25,8 +33,14 @@ import java.util.Map;
  */
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class DataSourceConfig {
 
+    // Resolved lazily: the master repositories depend on beans defined in this class
+    private final ObjectProvider<TenantRepository> tenantRepositoryProvider;
+    private final ObjectProvider<TenantSnapshotCache> tenantSnapshotCacheProvider;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
     @Value("${spring.datasource.master.url}")
     private String masterUrl;
 
@@ -54,6 +68,43 @@ public class DataSourceConfig {
     @Value("${tenant.datasource.default-db:}")
     private String tenantDefaultDb;
 
+    @Value("${tenant.datasource.hikari.maximum-pool-size:5}")
+    private int tenantMaximumPoolSize;
+
+    @Value("${tenant.datasource.hikari.minimum-idle:1}")
+    private int tenantMinimumIdle;
+
+    @Value("${tenant.datasource.hikari.connection-timeout:30000}")
+    private long tenantConnectionTimeoutMs;
+
+    // Pool size per plan code and per tenant code, e.g. "BASIC=3,PREMIUM=10"; tenant entries win
+    @Value("${tenant.datasource.plan-pool-sizes:}")
+    private String tenantPlanPoolSizes;
+
+    @Value("${tenant.datasource.tenant-pool-sizes:}")
+    private String tenantPoolSizeOverrides;
+
+    @Value("${tenant.datasource.max-total-connections:200}")
+    private int tenantMaxTotalConnections;
+
+    @Value("${tenant.datasource.pool-idle-timeout-ms:1800000}")
+    private long tenantPoolIdleTimeoutMs;
+
+    @Value("${tenant.datasource.connection-gate.enabled:true}")
+    private boolean tenantConnectionGateEnabled;
+
+    @Value("${tenant.datasource.connection-gate.timeout-ms:5000}")
+    private long tenantConnectionGateTimeoutMs;
+
+    @Value("${tenant.datasource.connection-gate.max-waiters-per-connection:4}")
+    private int tenantMaxWaitersPerConnection;
+
+    @Value("${tenant.datasource.connection-gate.retry-after-seconds:2}")
+    private int tenantRetryAfterSeconds;
+
+    @Value("${tenant.jpa.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
     @Value("${spring.jpa.hibernate.ddl-auto:validate}")
     private String hibernateDdlAuto;
 
@@ -82,19 +133,63 @@ public class DataSourceConfig {
 
     /**
      * Tenant Routing DataSource (dynamic switching)
+     * Tenant pools are registered lazily by resolving the tenant code in the master DB
      */
     @Bean(name = "tenantDataSource")
     @Primary
-    public DataSource tenantDataSource() {
+    public TenantRoutingDataSource tenantDataSource() {
         log.info("Configuring tenant routing datasource");
 
-        return new TenantRoutingDataSource(
+        TenantRoutingDataSource dataSource = new TenantRoutingDataSource(
                 tenantUrlPrefix,
                 tenantUsername,
                 tenantPassword,
                 tenantDriverClassName,
                 tenantDefaultDb
         );
+
+        dataSource.setMaximumPoolSize(tenantMaximumPoolSize);
+        dataSource.setMinimumIdle(tenantMinimumIdle);
+        dataSource.setConnectionTimeoutMs(tenantConnectionTimeoutMs);
+        dataSource.setMaxTotalConnections(tenantMaxTotalConnections);
+        dataSource.setPoolIdleTimeoutMs(tenantPoolIdleTimeoutMs);
+        dataSource.setConnectionGateEnabled(tenantConnectionGateEnabled);
+        dataSource.setConnectionGateTimeoutMs(tenantConnectionGateTimeoutMs);
+        dataSource.setMaxWaitersPerConnection(tenantMaxWaitersPerConnection);
+        dataSource.setRetryAfterSeconds(tenantRetryAfterSeconds);
+        dataSource.setMeterRegistrySupplier(meterRegistryProvider::getIfAvailable);
+        dataSource.setTenantDatabaseResolver(tenantCode -> tenantRepositoryProvider.getObject()
+                .findByCode(tenantCode)
+                .map(Tenant::getDbName));
+
+        Map<String, Integer> planPoolSizes = parsePoolSizes(tenantPlanPoolSizes);
+        Map<String, Integer> tenantPoolSizes = parsePoolSizes(tenantPoolSizeOverrides);
+        dataSource.setPoolSizeResolver(tenantCode -> {
+            Integer tenantPoolSize = tenantPoolSizes.get(tenantCode);
+            if (tenantPoolSize != null) {
+                return tenantPoolSize;
+            }
+            Optional<String> planCode = tenantSnapshotCacheProvider.getObject().get(tenantCode)
+                    .map(TenantSnapshot::planCode);
+            return planCode.map(planPoolSizes::get).orElse(null);
+        });
+
+        return dataSource;
+    }
+
+    private Map<String, Integer> parsePoolSizes(String entries) {
+        Map<String, Integer> poolSizes = new HashMap<>();
+        for (String entry : entries.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid pool size entry (expected code=size): " + entry);
+            }
+            poolSizes.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return poolSizes;
     }
 
     /**
@@ -116,6 +211,9 @@ public class DataSourceConfig {
         properties.put("hibernate.show_sql", false);
         properties.put("hibernate.format_sql", true);
         properties.put("hibernate.jdbc.time_zone", "Asia/Kolkata");
+        properties.put("hibernate.jdbc.batch_size", jdbcBatchSize);
+        properties.put("hibernate.order_inserts", true);
+        properties.put("hibernate.order_updates", true);
 
         em.setJpaPropertyMap(properties);
 
@@ -2,20 +2,29 @@ package com.metafit.controller;
 
 import com.metafit.dto.request.attendance.CheckInRequest;
 import com.metafit.dto.request.attendance.CheckOutRequest;
+import com.metafit.dto.response.attendance.AttendancePageResponse;
 import com.metafit.dto.response.attendance.AttendanceResponse;
 import com.metafit.dto.response.attendance.MemberAttendanceItem;
 import com.metafit.dto.response.attendance.TodayAttendanceSummary;
+import com.metafit.enums.ExportFormat;
+import com.metafit.events.LiveEventBus;
 import com.metafit.service.AttendanceService;
+import com.metafit.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -29,6 +38,8 @@ import java.util.List;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final LiveEventBus liveEventBus;
+    private final ExportService exportService;
 
     /**
      * Mark member check-in
@@ -63,6 +74,17 @@ public class AttendanceController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Live stream of check-ins, check-outs and device events for the caller's gym
+     * GET /api/attendance/stream (text/event-stream)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendance() {
+        log.info("GET /api/attendance/stream - Opening live attendance stream");
+
+        return liveEventBus.subscribe();
+    }
+
     /**
      * Get today's attendance list
      * GET /api/attendance/today
@@ -103,22 +125,46 @@ public class AttendanceController {
     }
 
     /**
-     * Get attendance by date range
-     * GET /api/attendance?startDate=2025-11-01&endDate=2025-11-17
+     * Get attendance by date range, one page at a time
+     * GET /api/attendance?startDate=2025-11-01&endDate=2025-11-17&size=100&cursor=...
      */
     @GetMapping
-    public ResponseEntity<List<AttendanceResponse>> getAttendanceByDateRange(
+    public ResponseEntity<AttendancePageResponse> getAttendanceByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
 
-        log.info("GET /api/attendance?startDate={}&endDate={}", startDate, endDate);
+        log.info("GET /api/attendance?startDate={}&endDate={}&size={}", startDate, endDate, size);
 
-        List<AttendanceResponse> attendances = attendanceService
-                .getAttendanceByDateRange(startDate, endDate);
+        AttendancePageResponse attendances = attendanceService
+                .getAttendanceByDateRange(startDate, endDate, cursor, size);
 
         return ResponseEntity.ok(attendances);
     }
 
+    /**
+     * Export attendance for a date range as a streamed file
+     * GET /api/attendance/export?startDate=2025-01-01&endDate=2025-06-30&format=csv|ndjson
+     */
+    @GetMapping("/export")
+    public void exportAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /api/attendance/export?startDate={}&endDate={}&format={}", startDate, endDate, format);
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"attendance_%s_%s.%s\"",
+                startDate, endDate, exportFormat.getExtension()));
+
+        exportService.exportAttendance(startDate, endDate, exportFormat, response.getOutputStream());
+    }
+
     /**
      * Get member attendance history
      * GET /api/attendance/member/{memberId}?days=30
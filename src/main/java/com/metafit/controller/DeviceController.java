@@ -193,6 +193,22 @@ public class DeviceController {
         }
     }
 
+    /**
+     * Offline replay webhook
+     * POST /api/devices/webhook/check-in/batch
+     *
+     * Receives scans a device buffered while offline and processes them in one call.
+     * Scans carrying an idempotency key that was already processed return the original result.
+     */
+    @PostMapping("/webhook/check-in/batch")
+    public ResponseEntity<DeviceCheckInBatchResponse> handleDeviceCheckInBatch(
+            @Valid @RequestBody DeviceCheckInBatchRequest request) {
+
+        log.info("Received batch of {} check-ins from device", request.getScans().size());
+        DeviceCheckInBatchResponse response = deviceService.processCheckInBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Device heartbeat webhook
      * POST /api/devices/webhook/heartbeat
@@ -5,9 +5,11 @@ import com.metafit.dto.request.member.CreateMemberRequest;
 import com.metafit.dto.request.member.RenewMembershipRequest;
 import com.metafit.dto.request.member.UpdateMemberRequest;
 import com.metafit.dto.response.member.MemberDetailResponse;
+import com.metafit.dto.response.member.MemberListItem;
 import com.metafit.dto.response.member.MemberResponse;
 import com.metafit.enums.MemberStatus;
 import com.metafit.service.MemberService;
+import com.metafit.service.MemberStatsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +34,7 @@ import java.util.Map;
 public class MemberController {
 
     private final MemberService memberService;
+    private final MemberStatsService memberStatsService;
 
     /**
      * Create a new member
@@ -91,6 +94,31 @@ public class MemberController {
         return ResponseEntity.ok(members);
     }
 
+    /**
+     * Typeahead suggestions for the front desk
+     * GET /api/members/typeahead?q=jo
+     */
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN', 'RECEPTION', 'TRAINER')")
+    public ResponseEntity<List<MemberListItem>> suggestMembers(
+            @RequestParam("q") String query) {
+
+        List<MemberListItem> members = memberService.suggestMembers(query);
+        return ResponseEntity.ok(members);
+    }
+
+    /**
+     * Recompute the member_stats rollup from attendance and payment history (backfill / repair)
+     * POST /api/members/stats/rebuild
+     */
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<Integer> rebuildMemberStats() {
+        log.info("Rebuilding member stats");
+        int rebuilt = memberStatsService.rebuild();
+        return ResponseEntity.ok(rebuilt);
+    }
+
     /**
      * Get expiring members (within 7 days)
      * GET /api/members/expiring
@@ -1,19 +1,28 @@
 package com.metafit.controller;
 
 import com.metafit.dto.request.payment.CreatePaymentRequest;
+import com.metafit.dto.response.payment.DailyRevenueResponse;
 import com.metafit.dto.response.payment.PaymentResponse;
 import com.metafit.dto.response.payment.RevenueReportResponse;
+import com.metafit.enums.ExportFormat;
+import com.metafit.service.ExportService;
 import com.metafit.service.PaymentService;
+import com.metafit.service.RevenueReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +32,8 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ExportService exportService;
+    private final RevenueReportService revenueReportService;
 
     @PostMapping
     public ResponseEntity<PaymentResponse> createPayment(@Valid @RequestBody CreatePaymentRequest request) {
@@ -55,6 +66,24 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping("/export")
+    public void exportPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /api/payments/export?startDate={}&endDate={}&format={}", startDate, endDate, format);
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"payments_%s_%s.%s\"",
+                startDate, endDate, exportFormat.getExtension()));
+
+        exportService.exportPayments(startDate, endDate, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/today/revenue")
     public ResponseEntity<RevenueReportResponse> getTodayRevenue() {
         log.info("GET /api/payments/today/revenue");
@@ -64,6 +93,52 @@ public class PaymentController {
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueReportResponse> getRevenueBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.info("GET /api/payments/revenue?startDate={}&endDate={}", startDate, endDate);
+
+        RevenueReportResponse report = revenueReportService.getRevenueBetween(startDate, endDate);
+
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/revenue/month")
+    public ResponseEntity<RevenueReportResponse> getMonthRevenue(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+
+        YearMonth reportMonth = month != null ? month : YearMonth.now();
+        log.info("GET /api/payments/revenue/month?month={}", reportMonth);
+
+        RevenueReportResponse report = revenueReportService.getMonthRevenue(reportMonth);
+
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/revenue/daily")
+    public ResponseEntity<List<DailyRevenueResponse>> getDailyRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.info("GET /api/payments/revenue/daily?startDate={}&endDate={}", startDate, endDate);
+
+        List<DailyRevenueResponse> days = revenueReportService.getDailyRevenue(startDate, endDate);
+
+        return ResponseEntity.ok(days);
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<Integer> rebuildRevenue() {
+        log.info("POST /api/payments/revenue/rebuild");
+
+        int rebuilt = revenueReportService.rebuild();
+
+        return ResponseEntity.ok(rebuilt);
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null ? authentication.getName() : "system";
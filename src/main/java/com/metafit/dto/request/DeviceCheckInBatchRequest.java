@@ -0,0 +1,48 @@
+package com.metafit.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Scans buffered by a device while it was offline, replayed in one call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceCheckInBatchRequest {
+
+    @NotBlank(message = "Device API key is required")
+    private String apiKey;
+
+    @NotEmpty(message = "At least one scan is required")
+    @Size(max = 500, message = "A batch can contain at most 500 scans")
+    @Valid
+    private List<Scan> scans;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Scan {
+
+        @NotBlank(message = "Device identifier is required")
+        private String deviceIdentifier;
+
+        /**
+         * Scan time on the device (epoch millis); defaults to the time of the batch
+         */
+        private Long timestamp;
+
+        @Size(max = 100, message = "Idempotency key must not exceed 100 characters")
+        private String idempotencyKey;
+    }
+}
@@ -4,6 +4,7 @@ package com.metafit.dto.request;
 import com.metafit.enums.DeviceType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,4 +25,10 @@ public class DeviceCheckInRequest {
     private DeviceType deviceType;
     private String rawData;
     private Long timestamp;
+
+    /**
+     * Client-generated key; retries with the same key return the first result
+     */
+    @Size(max = 100, message = "Idempotency key must not exceed 100 characters")
+    private String idempotencyKey;
 }
@@ -0,0 +1,25 @@
+package com.metafit.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceCheckInBatchResponse {
+
+    private Integer total;
+    private Integer accepted;
+    private Integer rejected;
+    private Integer duplicates;
+
+    /**
+     * One result per scan, in request order
+     */
+    private List<DeviceCheckInResponse> results;
+}
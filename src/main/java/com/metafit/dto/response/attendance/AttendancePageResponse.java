@@ -0,0 +1,27 @@
+package com.metafit.dto.response.attendance;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of an attendance listing, newest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendancePageResponse {
+
+    private List<AttendanceResponse> items;
+
+    /**
+     * Pass back as {@code cursor} to fetch the next page; null on the last page
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -1,6 +1,7 @@
 package com.metafit.dto.response.attendance;
 
 import com.metafit.entity.Attendance;
+import com.metafit.enums.AttendanceSource;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,6 +24,26 @@ public class AttendanceResponse {
     private String createdBy;
     private Long durationMinutes; // Duration in minutes
 
+    /**
+     * Constructor expression target for AttendanceRepository projections
+     */
+    public AttendanceResponse(Long id, Long memberId, String memberName, String memberPhone,
+                              LocalDateTime checkIn, LocalDateTime checkOut,
+                              AttendanceSource source, String createdBy) {
+        this.id = id;
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.memberPhone = memberPhone;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.source = source.name();
+        this.createdBy = createdBy;
+
+        if (checkOut != null) {
+            this.durationMinutes = java.time.Duration.between(checkIn, checkOut).toMinutes();
+        }
+    }
+
     public static AttendanceResponse fromEntity(Attendance attendance) {
         AttendanceResponse response = new AttendanceResponse();
         response.setId(attendance.getId());
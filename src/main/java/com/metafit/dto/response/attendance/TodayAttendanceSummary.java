@@ -33,6 +33,11 @@ public class TodayAttendanceSummary {
     private Double attendancePercentage; // (totalPresent / totalActive) * 100
 
     public TodayAttendanceSummary(long totalCheckIns, long currentlyInGym, long checkedOut, LocalDateTime lastCheckIn) {
+        this.totalCheckIns = totalCheckIns;
+        this.currentlyInGym = currentlyInGym;
+        this.checkedOut = checkedOut;
+        this.totalCheckOuts = checkedOut;
+        this.lastCheckIn = lastCheckIn;
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.metafit.dto.response.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsResponse {
+    private Long activeMembers;
+    private Long todayCheckIns;
+    private Long expiringLittle; // Active members ending within 7 days
+    private BigDecimal todayRevenue;
+    private Long todayTransactions;
+}
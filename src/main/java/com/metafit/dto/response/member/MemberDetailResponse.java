@@ -48,4 +48,5 @@ public class MemberDetailResponse {
     private Long attendanceThisMonth;
     private Double totalPayments;
     private LocalDateTime lastCheckIn;
+    private Long averageDurationMinutes;
 }
@@ -21,16 +21,22 @@ public class MemberListItem {
     private Boolean isExpiringLittle;
 
     public static MemberListItem fromEntity(Member member) {
+        return of(member.getId(), member.getFullName(), member.getPhone(),
+                member.getStatus(), member.getMembershipEndDate());
+    }
+
+    public static MemberListItem of(Long id, String fullName, String phone,
+                                    MemberStatus status, LocalDate membershipEndDate) {
         MemberListItem item = new MemberListItem();
-        item.setId(member.getId());
-        item.setFullName(member.getFullName());
-        item.setPhone(member.getPhone());
-        item.setStatus(member.getStatus());
-        item.setMembershipEndDate(member.getMembershipEndDate());
+        item.setId(id);
+        item.setFullName(fullName);
+        item.setPhone(phone);
+        item.setStatus(status);
+        item.setMembershipEndDate(membershipEndDate);
 
-        if (member.getMembershipEndDate() != null) {
+        if (membershipEndDate != null) {
             LocalDate today = LocalDate.now();
-            long days = java.time.temporal.ChronoUnit.DAYS.between(today, member.getMembershipEndDate());
+            long days = java.time.temporal.ChronoUnit.DAYS.between(today, membershipEndDate);
             item.setDaysUntilExpiry((int) days);
             item.setIsExpiringLittle((days > 0 && days <= 7));
         }
@@ -41,6 +41,10 @@ public class MemberResponse {
     private Boolean isExpiringSoon; // ⚠️ Yellow warning (7 days)
     private Boolean isExpiringLittle;  // 🚨 Red alert (3 days)
 
+    // From the member_stats rollup
+    private Long totalVisits;
+    private LocalDateTime lastCheckIn;
+
     // Photo
     private String photoUrl;
     private Boolean isActive;
@@ -0,0 +1,17 @@
+package com.metafit.dto.response.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueResponse {
+    private LocalDate date;
+    private BigDecimal totalRevenue;
+    private Long transactionCount;
+}
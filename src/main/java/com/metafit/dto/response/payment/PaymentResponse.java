@@ -1,6 +1,7 @@
 package com.metafit.dto.response.payment;
 
 import com.metafit.entity.Payment;
+import com.metafit.enums.PaymentMethod;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,6 +23,14 @@ public class PaymentResponse {
     private String transactionId;
     private String notes;
 
+    /**
+     * Constructor expression target for PaymentRepository projections
+     */
+    public PaymentResponse(Long id, Long memberId, String memberName, String memberPhone, BigDecimal amount,
+                           PaymentMethod method, LocalDateTime paidAt, String transactionId, String notes) {
+        this(id, memberId, memberName, memberPhone, amount, method.name(), paidAt, transactionId, notes);
+    }
+
     public static PaymentResponse fromEntity(Payment payment) {
         PaymentResponse response = new PaymentResponse();
         response.setId(payment.getId());
@@ -14,7 +14,8 @@ import java.time.temporal.ChronoUnit;
 @Entity
 @Table(name = "attendance", indexes = {
         @Index(name = "idx_member_id", columnList = "member_id"),
-        @Index(name = "idx_check_in_time", columnList = "check_in_time")
+        @Index(name = "idx_check_in_time", columnList = "check_in_time"),
+        @Index(name = "idx_attendance_member_check_in", columnList = "member_id, check_in_time")
 })
 @Data
 @NoArgsConstructor
@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
  * connected to the gym management system
  */
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = "idx_devices_api_key", columnList = "api_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -162,6 +164,18 @@ public class Device {
     @Column(name = "created_by", length = 100)
     private String createdBy;
 
+    /**
+     * Online state held in memory by DeviceLivenessTable (ahead of status until the next flush)
+     */
+    @Transient
+    private Boolean liveOnline;
+
+    /**
+     * Latest heartbeat held in memory by DeviceLivenessTable (ahead of lastPing until the next flush)
+     */
+    @Transient
+    private LocalDateTime liveLastPing;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -185,11 +199,25 @@ public class Device {
 
     /**
      * Check if device is online
+     * Prefers the in-memory liveness state for devices that are not disabled or in maintenance
      */
     public boolean isOnline() {
+        if (liveOnline != null && (DeviceStatus.ONLINE.equals(status) || DeviceStatus.OFFLINE.equals(status))) {
+            return liveOnline;
+        }
         return DeviceStatus.ONLINE.equals(status);
     }
 
+    /**
+     * Latest known ping, including heartbeats not yet flushed to the database
+     */
+    public LocalDateTime getLatestPing() {
+        if (liveLastPing != null && (lastPing == null || liveLastPing.isAfter(lastPing))) {
+            return liveLastPing;
+        }
+        return lastPing;
+    }
+
     /**
      * Check if device is active and can process check-ins
      */
@@ -0,0 +1,58 @@
+package com.metafit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Member Stats Entity
+ * Per-member attendance and payment rollup, maintained on write by MemberStatsService
+ */
+@Entity
+@Table(name = "member_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberStats {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "total_visits", nullable = false)
+    private Long totalVisits;
+
+    /**
+     * Month that visitsThisMonth counts (first day)
+     */
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "visits_this_month", nullable = false)
+    private Long visitsThisMonth;
+
+    @Column(name = "last_check_in")
+    private LocalDateTime lastCheckIn;
+
+    /**
+     * Visits with a check-out, the denominator of the average duration
+     */
+    @Column(name = "completed_visits", nullable = false)
+    private Long completedVisits;
+
+    @Column(name = "total_duration_minutes", nullable = false)
+    private Long totalDurationMinutes;
+
+    @Column(name = "total_paid", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalPaid;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_member_id", columnList = "member_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
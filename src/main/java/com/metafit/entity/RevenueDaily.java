@@ -0,0 +1,35 @@
+package com.metafit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Revenue Daily Entity
+ * Payment totals per day and payment method, maintained on write by RevenueReportService
+ */
+@Entity
+@Table(name = "revenue_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueDaily {
+
+    @EmbeddedId
+    private RevenueDailyId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
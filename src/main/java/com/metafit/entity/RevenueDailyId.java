@@ -0,0 +1,30 @@
+package com.metafit.entity;
+
+import com.metafit.enums.PaymentMethod;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Revenue Daily key: one row per day and payment method
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueDailyId implements Serializable {
+
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private PaymentMethod paymentMethod;
+}
@@ -15,7 +15,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-class Subscription {
+public class Subscription {
 
     @Id
     @GeneratedValue(generator = "UUID")
@@ -0,0 +1,32 @@
+package com.metafit.enums;
+
+import lombok.Getter;
+
+/**
+ * Export file format enumeration
+ */
+@Getter
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Resolve a format from a request parameter (case-insensitive)
+     */
+    public static ExportFormat fromParam(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + ". Use csv or ndjson");
+    }
+}
@@ -0,0 +1,19 @@
+package com.metafit.events;
+
+import com.metafit.enums.DeviceEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Device event pushed to live attendance streams
+ */
+public record DeviceActivityEvent(
+        Long deviceId,
+        DeviceEventType eventType,
+        String deviceIdentifier,
+        Long memberId,
+        boolean success,
+        String message,
+        LocalDateTime eventTime
+) {
+}
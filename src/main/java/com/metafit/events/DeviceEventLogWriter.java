@@ -0,0 +1,269 @@
+package com.metafit.events;
+
+import com.metafit.enums.DeviceEventType;
+import com.metafit.tenancy.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind writer for device event logs
+ *
+ * Webhook requests only enqueue the event; a background thread drains the buffer,
+ * groups events by tenant and writes each group with one JDBC batch insert.
+ * When the buffer is full the event is written synchronously by the caller on a
+ * connection of its own, and everything still buffered is flushed on shutdown.
+ */
+@Slf4j
+@Component
+public class DeviceEventLogWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO device_event_logs
+                (device_id, event_type, device_identifier, member_id, success,
+                 message, error_code, attendance_id, event_time, processed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${device.event-log.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${device.event-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${device.event-log.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${device.event-log.enqueue-timeout-ms:50}")
+    private long enqueueTimeoutMs;
+
+    private BlockingQueue<PendingEvent> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public DeviceEventLogWriter(DataSource dataSource) {
+        // Primary datasource is the tenant routing datasource; TenantContext selects the database
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    void start() {
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "device-event-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        log.info("Device event log writer started (capacity: {}, batch size: {})", bufferCapacity, batchSize);
+    }
+
+    /**
+     * Queue an event for the current tenant
+     *
+     * Inside a transaction the event is queued after commit, so it never refers
+     * to rows that are not visible yet and is dropped together with a rollback.
+     */
+    public void enqueue(Long deviceId, DeviceEventType eventType, String deviceIdentifier,
+                        Long memberId, boolean success, String message, Long attendanceId) {
+        PendingEvent event = new PendingEvent(TenantContext.getTenantId(), deviceId, eventType,
+                deviceIdentifier, memberId, success, message, null, attendanceId, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Not interrupted: a batch being written has already left the buffer and would be lost.
+        // The loop sees the flag after its current write or poll and exits on its own.
+        running = false;
+        try {
+            writerThread.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Device event log writer still busy on shutdown; flushing the rest alongside it");
+        }
+
+        List<PendingEvent> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} buffered device events on shutdown", remaining.size());
+            write(remaining);
+        }
+    }
+
+    private void offer(PendingEvent event) {
+        try {
+            if (buffer.offer(event, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Backpressure: the writer is behind, so this caller pays for its own insert
+        log.warn("Device event buffer full ({} events), writing synchronously", bufferCapacity);
+        TenantContext.runWithTenant(event.tenantCode(), () -> writeOnOwnConnection(event));
+    }
+
+    /**
+     * Inserts one event outside any transaction
+     *
+     * Called from afterCommit, where the committed transaction's connection is still bound:
+     * JdbcTemplate would join it and the insert would be rolled back when the pool takes it back.
+     */
+    private void writeOnOwnConnection(PendingEvent event) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                bind(ps, event);
+                ps.executeUpdate();
+            }
+        } catch (SQLException ex) {
+            log.error("Dropping device event {} for device {} (tenant {}): {}",
+                    event.eventType(), event.deviceId(), event.tenantCode(), ex.getMessage());
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                PendingEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                if (running) {
+                    log.warn("Device event log writer interrupted");
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                log.error("Device event log writer failed: {}", ex.getMessage(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingEvent> events) {
+        Map<String, List<PendingEvent>> byTenant = new LinkedHashMap<>();
+        for (PendingEvent event : events) {
+            byTenant.computeIfAbsent(event.tenantCode(), code -> new ArrayList<>()).add(event);
+        }
+
+        byTenant.forEach((tenantCode, tenantEvents) ->
+                TenantContext.runWithTenant(tenantCode, () -> writeTenantBatch(tenantCode, tenantEvents)));
+    }
+
+    private void writeTenantBatch(String tenantCode, List<PendingEvent> events) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, this::bind);
+            log.debug("Wrote {} device events for tenant: {}", events.size(), tenantCode);
+        } catch (DataAccessException ex) {
+            log.error("Batch insert of {} device events failed for tenant {}: {}",
+                    events.size(), tenantCode, ex.getMessage());
+            writeIndividually(tenantCode, events);
+        }
+    }
+
+    /**
+     * Retries a failed batch row by row so one bad event does not drop the others
+     */
+    private void writeIndividually(String tenantCode, List<PendingEvent> events) {
+        int dropped = 0;
+        for (PendingEvent event : events) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+            } catch (DataAccessException ex) {
+                dropped++;
+                log.error("Dropping device event {} for device {} (tenant {}): {}",
+                        event.eventType(), event.deviceId(), tenantCode, ex.getMessage());
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} of {} device events for tenant: {}", dropped, events.size(), tenantCode);
+        }
+    }
+
+    private void bind(PreparedStatement ps, PendingEvent event) throws SQLException {
+        ps.setLong(1, event.deviceId());
+        ps.setString(2, event.eventType().name());
+        ps.setString(3, event.deviceIdentifier());
+        setNullableLong(ps, 4, event.memberId());
+        ps.setBoolean(5, event.success());
+        ps.setString(6, event.message());
+        ps.setString(7, event.errorCode());
+        setNullableLong(ps, 8, event.attendanceId());
+        ps.setTimestamp(9, Timestamp.valueOf(event.eventTime()));
+        ps.setTimestamp(10, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    /**
+     * Device event captured on the request thread together with its tenant
+     */
+    public record PendingEvent(
+            String tenantCode,
+            Long deviceId,
+            DeviceEventType eventType,
+            String deviceIdentifier,
+            Long memberId,
+            boolean success,
+            String message,
+            String errorCode,
+            Long attendanceId,
+            LocalDateTime eventTime
+    ) {
+    }
+}
@@ -0,0 +1,263 @@
+package com.metafit.events;
+
+import com.metafit.exception.QuotaExceededException;
+import com.metafit.tenancy.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of live attendance and device events to SSE subscribers per tenant
+ *
+ * Events are published after the producing transaction commits into a small outbox per
+ * subscriber, which is drained in order on a bounded pool shared by all tenants, so a slow
+ * client never blocks a check-in or another client's stream. A subscriber whose outbox
+ * overflows, or whose send has been stuck past the send timeout, is disconnected; clients
+ * recover by reconnecting and reloading the summary.
+ */
+@Slf4j
+@Component
+public class LiveEventBus {
+
+    public static final String CHECK_IN = "check-in";
+    public static final String CHECK_OUT = "check-out";
+    public static final String DEVICE_EVENT = "device-event";
+
+    private static final String DEFAULT_TENANT = "default";
+    private static final LiveEvent KEEPALIVE = new LiveEvent(null, null);
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribersPerTenant;
+    private final int outboxCapacity;
+    private final long sendTimeoutNanos;
+
+    public LiveEventBus(
+            @Value("${attendance.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${attendance.stream.max-subscribers-per-tenant:50}") int maxSubscribersPerTenant,
+            @Value("${attendance.stream.subscriber-queue-capacity:256}") int outboxCapacity,
+            @Value("${attendance.stream.dispatch-threads:4}") int dispatchThreads,
+            @Value("${attendance.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribersPerTenant = maxSubscribersPerTenant;
+        this.outboxCapacity = outboxCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        // At most one queued drain task per subscriber, so the work queue is bounded by the subscriber count
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("live-events-"));
+    }
+
+    /**
+     * Open a stream for the current tenant
+     */
+    public SseEmitter subscribe() {
+        String tenantCode = currentTenant();
+        Subscriber subscriber = new Subscriber(tenantCode, new SseEmitter(emitterTimeoutMs));
+
+        // Cap check and registration under the tenant's map bin, so concurrent subscribes cannot exceed it
+        Set<Subscriber> tenantSubscribers = subscribers.compute(tenantCode, (code, existing) -> {
+            Set<Subscriber> current = existing != null ? existing : new CopyOnWriteArraySet<>();
+            if (current.size() >= maxSubscribersPerTenant) {
+                throw new QuotaExceededException("Live streams", current.size(), maxSubscribersPerTenant);
+            }
+            current.add(subscriber);
+            return current;
+        });
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        log.debug("Live stream opened for tenant {} ({} open)", tenantCode, tenantSubscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Publish an event to the current tenant's subscribers once the surrounding transaction commits
+     */
+    public void publish(String eventName, Object payload) {
+        String tenantCode = currentTenant();
+        if (!subscribers.containsKey(tenantCode)) {
+            return;
+        }
+
+        LiveEvent event = new LiveEvent(eventName, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(tenantCode, event);
+                }
+            });
+        } else {
+            deliver(tenantCode, event);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and drops dead or stuck ones
+     */
+    @Scheduled(fixedDelayString = "${attendance.stream.keepalive-ms:25000}")
+    public void sendKeepAlive() {
+        long now = System.nanoTime();
+        subscribers.forEach((tenantCode, tenantSubscribers) -> {
+            for (Subscriber subscriber : tenantSubscribers) {
+                if (subscriber.isStuck(now)) {
+                    log.debug("Dropping stalled live stream for tenant {}", tenantCode);
+                    subscriber.close();
+                } else {
+                    subscriber.enqueue(KEEPALIVE);
+                }
+            }
+            subscribers.computeIfPresent(tenantCode, (code, current) -> current.isEmpty() ? null : current);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(Subscriber::close));
+        subscribers.clear();
+    }
+
+    private void deliver(String tenantCode, LiveEvent event) {
+        Set<Subscriber> tenantSubscribers = subscribers.get(tenantCode);
+        if (tenantSubscribers != null) {
+            tenantSubscribers.forEach(subscriber -> subscriber.enqueue(event));
+        }
+    }
+
+    private String currentTenant() {
+        String tenantCode = TenantContext.getTenantId();
+        return tenantCode != null ? tenantCode : DEFAULT_TENANT;
+    }
+
+    /**
+     * Named event, or a keepalive comment when the name is null
+     */
+    private record LiveEvent(String name, Object payload) {
+    }
+
+    /**
+     * One SSE stream with its outbox; at most one dispatcher thread drains it at a time
+     */
+    private final class Subscriber {
+
+        private final String tenantCode;
+        private final SseEmitter emitter;
+        private final Queue<LiveEvent> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendStartedAt;
+
+        private Subscriber(String tenantCode, SseEmitter emitter) {
+            this.tenantCode = tenantCode;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(LiveEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > outboxCapacity) {
+                log.warn("Live stream of tenant {} is {} events behind, disconnecting it", tenantCode, outboxCapacity);
+                close();
+                return;
+            }
+            outbox.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            LiveEvent event;
+            while (!closed.get() && (event = outbox.poll()) != null) {
+                queued.decrementAndGet();
+                send(event);
+            }
+            draining.set(false);
+            if (closed.get()) {
+                completeEmitter();
+            } else if (!outbox.isEmpty()) {
+                // An event queued after the last poll but before the flag was cleared still needs a drain
+                scheduleDrain();
+            }
+        }
+
+        private void send(LiveEvent event) {
+            sendStartedAt = System.nanoTime();
+            try {
+                emitter.send(event.name() == null
+                        ? SseEmitter.event().comment("keepalive")
+                        : SseEmitter.event().name(event.name()).data(event.payload()));
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Dropping live stream for tenant {}: {}", tenantCode, ex.getMessage());
+                close();
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        private boolean isStuck(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > sendTimeoutNanos;
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            Set<Subscriber> tenantSubscribers = subscribers.get(tenantCode);
+            if (tenantSubscribers != null) {
+                tenantSubscribers.remove(this);
+            }
+            outbox.clear();
+            // A send in progress holds the emitter's lock; the draining thread completes it afterwards
+            if (!draining.get()) {
+                completeEmitter();
+            }
+        }
+
+        private void completeEmitter() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                log.debug("Closing live stream for tenant {} failed: {}", tenantCode, ex.getMessage());
+            }
+        }
+    }
+}
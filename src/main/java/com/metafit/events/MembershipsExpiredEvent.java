@@ -0,0 +1,9 @@
+package com.metafit.events;
+
+import java.util.List;
+
+/**
+ * Published after a chunk of memberships was moved to EXPIRED, for notifications and cache invalidation
+ */
+public record MembershipsExpiredEvent(String tenantCode, List<Long> memberIds) {
+}
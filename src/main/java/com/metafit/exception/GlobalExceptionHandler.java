@@ -1,8 +1,11 @@
 package com.metafit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -212,6 +215,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    /**
+     * Connection failures from the tenant datasource; a tenant over its connection share gets
+     * 503 + Retry-After, anything else is handled as an unexpected error
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessException.class})
+    public ResponseEntity<ErrorResponse> handleDataAccessException(
+            Exception ex, WebRequest request) {
+
+        TenantConnectionLimitException limit = findTenantConnectionLimit(ex);
+        if (limit == null) {
+            return handleGlobalException(ex, request);
+        }
+
+        log.warn("Tenant connection limit: {}", limit.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Too Many Concurrent Requests")
+                .message(limit.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(limit.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -269,6 +300,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private TenantConnectionLimitException findTenantConnectionLimit(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TenantConnectionLimitException limit) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
     /**
      * Error response DTO with builder pattern
      */
@@ -0,0 +1,28 @@
+package com.metafit.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Exception thrown when a tenant's connection queue is full or its wait timed out
+ * Raised from the tenant datasource, so it reaches the handler wrapped by JPA/Spring exceptions
+ */
+public class TenantConnectionLimitException extends SQLTransientConnectionException {
+
+    private final String tenantCode;
+    private final int retryAfterSeconds;
+
+    public TenantConnectionLimitException(String tenantCode, String reason, int retryAfterSeconds) {
+        super(String.format("Too many concurrent database requests for tenant %s (%s). Please retry shortly.",
+                tenantCode, reason));
+        this.tenantCode = tenantCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getTenantCode() {
+        return tenantCode;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
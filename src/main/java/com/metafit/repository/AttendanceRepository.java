@@ -1,15 +1,22 @@
 package com.metafit.repository;
 
+import com.metafit.dto.response.attendance.AttendanceResponse;
 import com.metafit.entity.Attendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Attendance Repository
@@ -18,6 +25,8 @@ import java.util.UUID;
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
+    String RESPONSE_COLUMNS = "a.id, m.id, m.fullName, m.phone, a.checkInTime, a.checkOutTime, a.source, a.createdBy";
+
     /**
      * Find today's attendance records
      */
@@ -52,6 +61,78 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                 @Param("startDate") LocalDateTime startDate,
                                                 @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Check for an open check-in without failing when several open rows exist
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE a.member.id = :memberId AND a.checkOutTime IS NULL " +
+            "AND a.checkInTime BETWEEN :startDate AND :endDate")
+    boolean existsTodayActiveCheckIn(@Param("memberId") Long memberId,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Open check-ins (memberId, checkInTime) of the given members in the range
+     */
+    @Query("SELECT a.member.id, a.checkInTime FROM Attendance a WHERE a.member.id IN :memberIds " +
+            "AND a.checkOutTime IS NULL AND a.checkInTime BETWEEN :startDate AND :endDate")
+    List<Object[]> findOpenCheckIns(@Param("memberIds") Collection<Long> memberIds,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Session rows (id, memberId, checkInTime, checkOutTime) in the range, without loading entities
+     */
+    @Query("SELECT a.id, a.member.id, a.checkInTime, a.checkOutTime FROM Attendance a " +
+            "WHERE a.checkInTime BETWEEN :startDate AND :endDate")
+    List<Object[]> findSessionsBetween(@Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find an attendance record with its member in one query
+     */
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.member WHERE a.id = :id")
+    Optional<Attendance> findByIdWithMember(@Param("id") Long id);
+
+    /**
+     * Attendance listing rows in the range, newest first, projected with member name and phone
+     */
+    @Query("SELECT new com.metafit.dto.response.attendance.AttendanceResponse(" + RESPONSE_COLUMNS + ") " +
+            "FROM Attendance a JOIN a.member m " +
+            "WHERE a.checkInTime BETWEEN :startDate AND :endDate " +
+            "ORDER BY a.checkInTime DESC, a.id DESC")
+    List<AttendanceResponse> findResponsesBetween(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate,
+                                                  Pageable pageable);
+
+    /**
+     * Next keyset page: rows in the range strictly after the (checkInTime, id) cursor in listing order
+     */
+    @Query("SELECT new com.metafit.dto.response.attendance.AttendanceResponse(" + RESPONSE_COLUMNS + ") " +
+            "FROM Attendance a JOIN a.member m " +
+            "WHERE a.checkInTime BETWEEN :startDate AND :endDate " +
+            "AND (a.checkInTime < :cursorTime OR (a.checkInTime = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.checkInTime DESC, a.id DESC")
+    List<AttendanceResponse> findResponsesBetweenAfterCursor(@Param("startDate") LocalDateTime startDate,
+                                                             @Param("endDate") LocalDateTime endDate,
+                                                             @Param("cursorTime") LocalDateTime cursorTime,
+                                                             @Param("cursorId") Long cursorId,
+                                                             Pageable pageable);
+
+    /**
+     * Forward-only cursor over listing rows in the range, oldest first, for exports
+     * Must be consumed and closed inside a read-only transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.metafit.dto.response.attendance.AttendanceResponse(" + RESPONSE_COLUMNS + ") " +
+            "FROM Attendance a JOIN a.member m " +
+            "WHERE a.checkInTime BETWEEN :startDate AND :endDate " +
+            "ORDER BY a.checkInTime, a.id")
+    Stream<AttendanceResponse> streamResponsesBetween(@Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
+
     /**
      * Find attendance records between dates
      */
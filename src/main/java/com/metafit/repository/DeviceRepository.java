@@ -4,11 +4,13 @@ import com.metafit.entity.*;
 import com.metafit.enums.DeviceStatus;
 import com.metafit.enums.DeviceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,4 +41,58 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     boolean existsByApiKey(String apiKey);
 
     long countByStatus(DeviceStatus status);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Device d SET d.totalCheckIns = COALESCE(d.totalCheckIns, 0) + :count, " +
+            "d.lastCheckIn = :checkInTime WHERE d.id = :deviceId")
+    int addCheckIns(@Param("deviceId") Long deviceId,
+                    @Param("count") long count,
+                    @Param("checkInTime") LocalDateTime checkInTime);
+
+    /**
+     * Mark ONLINE devices offline in one statement and return their ids
+     * Covers rows not pinged since the threshold that are either not known to be online in memory
+     * or timed out in memory; a fresh last_ping (heartbeats flushed by another node) always wins
+     */
+    @Query(value = "UPDATE devices SET status = 'OFFLINE', updated_at = :now " +
+            "WHERE status = 'ONLINE' " +
+            "AND (last_ping IS NULL OR last_ping < :threshold) " +
+            "AND (NOT (id = ANY(:liveOnlineIds)) OR id = ANY(:expiredIds)) " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> markStaleDevicesOffline(@Param("threshold") LocalDateTime threshold,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("liveOnlineIds") Long[] liveOnlineIds,
+                                       @Param("expiredIds") Long[] expiredIds);
+
+    @Query("SELECT d.id FROM Device d WHERE d.id IN :ids AND d.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") DeviceStatus status);
+
+    /**
+     * All device dashboard counters in one round trip
+     */
+    @Query(value = "SELECT " +
+            "COUNT(*) AS \"totalDevices\", " +
+            "COUNT(*) FILTER (WHERE d.status = 'ONLINE') AS \"onlineDevices\", " +
+            "COUNT(*) FILTER (WHERE d.status = 'OFFLINE') AS \"offlineDevices\", " +
+            "COUNT(*) FILTER (WHERE d.active) AS \"activeDevices\", " +
+            "(SELECT COUNT(*) FROM device_event_logs e WHERE e.event_type = 'CHECK_IN' " +
+            "AND e.event_time BETWEEN :todayStart AND :todayEnd) AS \"totalCheckInsToday\", " +
+            "(SELECT COUNT(DISTINCT m.member_id) FROM member_device_mappings m WHERE m.active) " +
+            "AS \"totalEnrolledMembers\", " +
+            "(SELECT COUNT(*) FROM device_event_logs e WHERE e.success = false " +
+            "AND e.event_time > :errorsSince) AS \"errorCount\" " +
+            "FROM devices d", nativeQuery = true)
+    DeviceStatsView getDeviceStats(@Param("todayStart") LocalDateTime todayStart,
+                                   @Param("todayEnd") LocalDateTime todayEnd,
+                                   @Param("errorsSince") LocalDateTime errorsSince);
+
+    interface DeviceStatsView {
+        Long getTotalDevices();
+        Long getOnlineDevices();
+        Long getOfflineDevices();
+        Long getActiveDevices();
+        Long getTotalCheckInsToday();
+        Long getTotalEnrolledMembers();
+        Long getErrorCount();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,15 @@ public interface MemberDeviceMappingRepository extends JpaRepository<MemberDevic
             @Param("identifier") String identifier
     );
 
+    @Query("SELECT m FROM MemberDeviceMapping m JOIN FETCH m.member WHERE " +
+            "m.device.id = :deviceId AND " +
+            "m.deviceIdentifier IN :identifiers AND " +
+            "m.active = true")
+    List<MemberDeviceMapping> findActiveByDeviceAndIdentifiers(
+            @Param("deviceId") Long deviceId,
+            @Param("identifiers") Collection<String> identifiers
+    );
+
     @Query("SELECT m FROM MemberDeviceMapping m WHERE " +
             "m.deviceIdentifier = :identifier AND " +
             "m.deviceType = :type AND " +
@@ -10,7 +10,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,11 +37,43 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // Count active members
     long countByStatus(MemberStatus status);
 
-    // Search members by name or phone
-    @Query("SELECT m FROM Member m WHERE " +
-            "LOWER(m.fullName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "m.phone LIKE CONCAT('%', :query, '%')")
-    List<Member> searchByNameOrPhone(@Param("query") String query);
+    // Ranked name search served by the trigram index (V6): prefix matches first, then by similarity
+    @Query(value = "SELECT * FROM members " +
+            "WHERE lower(full_name) LIKE CONCAT('%', :pattern, '%') " +
+            "ORDER BY CASE WHEN lower(full_name) LIKE CONCAT(:pattern, '%') THEN 0 ELSE 1 END, " +
+            "similarity(lower(full_name), :query) DESC, full_name " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Member> searchByName(@Param("query") String query,
+                              @Param("pattern") String pattern,
+                              @Param("limit") int limit);
+
+    // Digit-only search on the phone prefix/suffix indexes (V6): exact match first. The patterns use ||
+    // (immutable) rather than concat() (stable), so the planner folds them to a constant prefix it can
+    // turn into an index range
+    @Query(value = "SELECT * FROM members " +
+            "WHERE reverse(phone) LIKE reverse(:digits) || '%' OR phone LIKE :digits || '%' " +
+            "ORDER BY CASE WHEN phone = :digits THEN 0 ELSE 1 END, phone " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Member> searchByPhoneDigits(@Param("digits") String digits,
+                                     @Param("limit") int limit);
+
+    // Typeahead index rows (id, fullName, phone, status, membershipEndDate), without loading entities
+    @Query("SELECT m.id, m.fullName, m.phone, m.status, m.membershipEndDate FROM Member m")
+    List<Object[]> findTypeaheadRows();
+
+    // Profile statistics of one member (trainer name and member_stats rollup) in one round trip;
+    // visits counted for an earlier month read as 0
+    @Query("SELECT " +
+            "(SELECT t.fullName FROM Trainer t WHERE t.id = m.assignedTrainerId) AS trainerName, " +
+            "COALESCE(s.totalVisits, 0L) AS totalAttendance, " +
+            "CASE WHEN s.monthStart = :monthStart THEN s.visitsThisMonth ELSE 0L END AS attendanceThisMonth, " +
+            "s.lastCheckIn AS lastCheckIn, " +
+            "COALESCE(s.totalPaid, 0) AS totalPayments, " +
+            "CASE WHEN s.completedVisits > 0 THEN s.totalDurationMinutes / s.completedVisits END " +
+            "AS averageDurationMinutes " +
+            "FROM Member m LEFT JOIN MemberStats s ON s.memberId = m.id WHERE m.id = :memberId")
+    MemberDetailStatsView getMemberDetailStats(@Param("memberId") Long memberId,
+                                               @Param("monthStart") LocalDate monthStart);
 
     // Find members with paginated results
     Page<Member> findAllByOrderByCreatedAtDesc(Pageable pageable);
@@ -47,6 +81,16 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // Find members by status with pagination
     Page<Member> findByStatusOrderByCreatedAtDesc(MemberStatus status, Pageable pageable);
 
+    // Active member count and how many of them end within the range, in one scan for the dashboard
+    @Query("SELECT COUNT(m) AS activeMembers, " +
+            "COALESCE(SUM(CASE WHEN m.membershipEndDate BETWEEN :startDate AND :endDate THEN 1L ELSE 0L END), 0L) " +
+            "AS expiringMembers " +
+            "FROM Member m WHERE m.status = 'ACTIVE'")
+    MemberDashboardCountsView getDashboardCounts(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
     // Find expiring members (membership ending within given date range)
     @Query("SELECT m FROM Member m WHERE " +
             "m.status = 'ACTIVE' AND " +
@@ -64,6 +108,24 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
             "ORDER BY m.membershipEndDate DESC")
     List<Member> findExpiredMembers(@Param("today") LocalDate today);
 
+    // Ids of ACTIVE members whose membership ended before today (dry-run of the expiry job)
+    @Query("SELECT m.id FROM Member m WHERE " +
+            "m.status = 'ACTIVE' AND " +
+            "m.membershipEndDate < :today " +
+            "ORDER BY m.id")
+    List<Long> findExpiredMemberIds(@Param("today") LocalDate today);
+
+    // Expire up to :chunkSize ended memberships in one statement and return their ids;
+    // rows locked by concurrent writers are skipped and picked up by a later chunk or run
+    @Query(value = "UPDATE members SET status = 'EXPIRED', updated_at = :now " +
+            "WHERE id IN (SELECT id FROM members " +
+            "WHERE status = 'ACTIVE' AND membership_end_date < :today " +
+            "ORDER BY id LIMIT :chunkSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> expireMembershipsChunk(@Param("today") LocalDate today,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("chunkSize") int chunkSize);
+
     // Find members assigned to a trainer
     List<Member> findByAssignedTrainerId(Long trainerId);
 
@@ -92,4 +154,17 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
             @Param("endDate") LocalDate endDate
     );
 
+    interface MemberDetailStatsView {
+        String getTrainerName();
+        Long getTotalAttendance();
+        Long getAttendanceThisMonth();
+        LocalDateTime getLastCheckIn();
+        BigDecimal getTotalPayments();
+        Long getAverageDurationMinutes();
+    }
+
+    interface MemberDashboardCountsView {
+        Long getActiveMembers();
+        Long getExpiringMembers();
+    }
 }
@@ -0,0 +1,101 @@
+package com.metafit.repository;
+
+import com.metafit.entity.MemberStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Member Stats Repository
+ * Atomic upserts keep the rollup correct under concurrent writes for the same member
+ */
+@Repository
+public interface MemberStatsRepository extends JpaRepository<MemberStats, Long> {
+
+    /**
+     * Count one check-in; a check-in from an earlier month than the stored one only counts towards the total
+     */
+    @Modifying
+    @Query(value = "INSERT INTO member_stats (member_id, total_visits, month_start, visits_this_month, " +
+            "last_check_in, completed_visits, total_duration_minutes, total_paid, updated_at) " +
+            "VALUES (:memberId, 1, :monthStart, 1, :checkInTime, 0, 0, 0, :now) " +
+            "ON CONFLICT (member_id) DO UPDATE SET " +
+            "total_visits = member_stats.total_visits + 1, " +
+            "visits_this_month = CASE " +
+            "WHEN member_stats.month_start = EXCLUDED.month_start THEN member_stats.visits_this_month + 1 " +
+            "WHEN member_stats.month_start < EXCLUDED.month_start THEN 1 " +
+            "ELSE member_stats.visits_this_month END, " +
+            "month_start = GREATEST(member_stats.month_start, EXCLUDED.month_start), " +
+            "last_check_in = GREATEST(member_stats.last_check_in, EXCLUDED.last_check_in), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void recordCheckIn(@Param("memberId") Long memberId,
+                       @Param("checkInTime") LocalDateTime checkInTime,
+                       @Param("monthStart") LocalDate monthStart,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Add a completed visit's duration
+     */
+    @Modifying
+    @Query(value = "UPDATE member_stats SET completed_visits = completed_visits + 1, " +
+            "total_duration_minutes = total_duration_minutes + :durationMinutes, updated_at = :now " +
+            "WHERE member_id = :memberId", nativeQuery = true)
+    int recordCheckOut(@Param("memberId") Long memberId,
+                       @Param("durationMinutes") long durationMinutes,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Add a payment to the lifetime total
+     */
+    @Modifying
+    @Query(value = "INSERT INTO member_stats (member_id, total_visits, month_start, visits_this_month, " +
+            "last_check_in, completed_visits, total_duration_minutes, total_paid, updated_at) " +
+            "VALUES (:memberId, 0, :monthStart, 0, NULL, 0, 0, :amount, :now) " +
+            "ON CONFLICT (member_id) DO UPDATE SET " +
+            "total_paid = member_stats.total_paid + EXCLUDED.total_paid, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void recordPayment(@Param("memberId") Long memberId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("monthStart") LocalDate monthStart,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Recompute every member's row from attendance and payment history (backfill / repair)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO member_stats (member_id, total_visits, month_start, visits_this_month, " +
+            "last_check_in, completed_visits, total_duration_minutes, total_paid, updated_at) " +
+            "SELECT m.id, COALESCE(a.total_visits, 0), :monthStart, COALESCE(a.visits_this_month, 0), " +
+            "a.last_check_in, COALESCE(a.completed_visits, 0), COALESCE(a.total_duration_minutes, 0), " +
+            "COALESCE(p.total_paid, 0), :now " +
+            "FROM members m " +
+            "LEFT JOIN (SELECT member_id, COUNT(*) AS total_visits, " +
+            "COUNT(*) FILTER (WHERE check_in_time >= :monthStart) AS visits_this_month, " +
+            "MAX(check_in_time) AS last_check_in, COUNT(check_out_time) AS completed_visits, " +
+            "COALESCE(SUM(CAST(EXTRACT(EPOCH FROM (check_out_time - check_in_time)) AS bigint) / 60), 0) " +
+            "AS total_duration_minutes " +
+            "FROM attendance GROUP BY member_id) a ON a.member_id = m.id " +
+            "LEFT JOIN (SELECT member_id, SUM(amount) AS total_paid FROM payments GROUP BY member_id) p " +
+            "ON p.member_id = m.id " +
+            "ON CONFLICT (member_id) DO UPDATE SET " +
+            "total_visits = EXCLUDED.total_visits, month_start = EXCLUDED.month_start, " +
+            "visits_this_month = EXCLUDED.visits_this_month, last_check_in = EXCLUDED.last_check_in, " +
+            "completed_visits = EXCLUDED.completed_visits, " +
+            "total_duration_minutes = EXCLUDED.total_duration_minutes, " +
+            "total_paid = EXCLUDED.total_paid, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int rebuildAll(@Param("monthStart") LocalDate monthStart,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Rollup rows for a page of members
+     */
+    List<MemberStats> findByMemberIdIn(Collection<Long> memberIds);
+}
@@ -1,14 +1,19 @@
 package com.metafit.repository;
 
+import com.metafit.dto.response.payment.PaymentResponse;
 import com.metafit.entity.Payment;
 import com.metafit.enums.PaymentMethod;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Payment Repository
@@ -33,6 +38,24 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
             @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Forward-only cursor over payment rows in the range, oldest first, for exports
+     * Must be consumed and closed inside a read-only transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.metafit.dto.response.payment.PaymentResponse(" +
+            "p.id, m.id, m.fullName, m.phone, p.amount, p.paymentMethod, p.paymentDate, p.transactionId, p.notes) " +
+            "FROM Payment p JOIN p.member m " +
+            "WHERE p.paymentDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY p.paymentDate, p.id")
+    Stream<PaymentResponse> streamResponsesBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
+
     /**
      * Find today's payments
      */
@@ -114,33 +137,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      */
     List<Payment> findByPaymentMethodOrderByPaymentDateDesc(PaymentMethod paymentMethod);
 
-    /**
-     * Get daily revenue report (date, total amount)
-     */
-    @Query("SELECT CAST(p.paymentDate AS date) as date, COALESCE(SUM(p.amount), 0) as revenue " +
-            "FROM Payment p WHERE " +
-            "p.paymentDate BETWEEN :startDate AND :endDate " +
-            "GROUP BY CAST(p.paymentDate AS date) " +
-            "ORDER BY CAST(p.paymentDate AS date)")
-    List<Object[]> getDailyRevenueReport(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
-    /**
-     * Get monthly revenue report
-     */
-    @Query("SELECT YEAR(p.paymentDate) as year, MONTH(p.paymentDate) as month, " +
-            "COALESCE(SUM(p.amount), 0) as revenue " +
-            "FROM Payment p WHERE " +
-            "p.paymentDate BETWEEN :startDate AND :endDate " +
-            "GROUP BY YEAR(p.paymentDate), MONTH(p.paymentDate) " +
-            "ORDER BY year, month")
-    List<Object[]> getMonthlyRevenueReport(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
     /**
      * Find last payment for a member
      */
@@ -0,0 +1,74 @@
+package com.metafit.repository;
+
+import com.metafit.dto.response.payment.DailyRevenueResponse;
+import com.metafit.entity.RevenueDaily;
+import com.metafit.entity.RevenueDailyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Revenue Daily Repository
+ * Atomic upserts keep the rollup correct under concurrent payments on the same day
+ */
+@Repository
+public interface RevenueDailyRepository extends JpaRepository<RevenueDaily, RevenueDailyId> {
+
+    /**
+     * Add one payment to its day and method
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_daily (revenue_date, payment_method, total_amount, payment_count, updated_at) " +
+            "VALUES (:revenueDate, :paymentMethod, :amount, 1, :now) " +
+            "ON CONFLICT (revenue_date, payment_method) DO UPDATE SET " +
+            "total_amount = revenue_daily.total_amount + EXCLUDED.total_amount, " +
+            "payment_count = revenue_daily.payment_count + 1, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void recordPayment(@Param("revenueDate") LocalDate revenueDate,
+                       @Param("paymentMethod") String paymentMethod,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Revenue and payment count per payment method between dates (inclusive)
+     */
+    @Query("SELECT r.id.paymentMethod, SUM(r.totalAmount), SUM(r.paymentCount) " +
+            "FROM RevenueDaily r WHERE r.id.revenueDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.paymentMethod")
+    List<Object[]> sumByPaymentMethodBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Revenue and payment count per day between dates (inclusive); days without payments are absent
+     */
+    @Query("SELECT new com.metafit.dto.response.payment.DailyRevenueResponse(" +
+            "r.id.revenueDate, SUM(r.totalAmount), SUM(r.paymentCount)) " +
+            "FROM RevenueDaily r WHERE r.id.revenueDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.revenueDate ORDER BY r.id.revenueDate")
+    List<DailyRevenueResponse> sumByDayBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM revenue_daily", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recompute every row from payment history; run after {@link #deleteAllRows()} (backfill / repair)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_daily (revenue_date, payment_method, total_amount, payment_count, updated_at) " +
+            "SELECT CAST(payment_date AS date), payment_method, SUM(amount), COUNT(*), :now " +
+            "FROM payments GROUP BY CAST(payment_date AS date), payment_method", nativeQuery = true)
+    int rebuildAll(@Param("now") LocalDateTime now);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +37,12 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
      */
     boolean existsByPhone(String phone);
 
+    /**
+     * Trainer names (id, fullName) for the given ids, without loading entities
+     */
+    @Query("SELECT t.id, t.fullName FROM Trainer t WHERE t.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find all active trainers
      */
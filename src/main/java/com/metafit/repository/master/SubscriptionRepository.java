@@ -0,0 +1,23 @@
+package com.metafit.repository.master;
+
+import com.metafit.entity.master.Subscription;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Subscription Repository (Master Database)
+ * Handles database operations for tenant subscriptions
+ */
+@Repository
+public interface SubscriptionRepository extends JpaRepository<Subscription, UUID> {
+
+    /**
+     * Find the latest subscription of a tenant (plan fetched eagerly)
+     */
+    @EntityGraph(attributePaths = "plan")
+    Optional<Subscription> findFirstByTenantIdOrderByEndDateDesc(Long tenantId);
+}
@@ -3,6 +3,7 @@ package com.metafit.repository.master;
 import com.metafit.entity.master.Tenant;
 import com.metafit.enums.TenantStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -127,7 +128,10 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
 
     /**
      * Update tenant status
+     * Use TenantConfigService.updateTenantStatus, which runs it in a master transaction and
+     * invalidates TenantSnapshotCache after commit
      */
+    @Modifying
     @Query("UPDATE Tenant t SET t.status = :status, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
     void updateTenantStatus(@Param("id") Long id, @Param("status") TenantStatus status);
 
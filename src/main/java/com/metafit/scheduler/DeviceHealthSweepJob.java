@@ -0,0 +1,87 @@
+package com.metafit.scheduler;
+
+import com.metafit.entity.master.Tenant;
+import com.metafit.repository.master.TenantRepository;
+import com.metafit.service.DeviceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Periodically marks devices offline whose heartbeats stopped, for every active tenant
+ *
+ * Tenants are swept in parallel on a small bounded pool; each sweep runs in its own
+ * transaction with a timeout and reports its duration and outcome as metrics.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceHealthSweepJob {
+
+    private final TenantRepository tenantRepository;
+    private final DeviceService deviceService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${device.health-sweep.parallelism:4}")
+    private int parallelism;
+
+    @Value("${device.health-sweep.tenant-timeout-ms:30000}")
+    private long tenantTimeoutMs;
+
+    private TenantJobRunner runner;
+
+    @PostConstruct
+    void init() {
+        this.runner = new TenantJobRunner("Device health sweep", "device.health.sweep", parallelism, tenantTimeoutMs,
+                Threading.VIRTUAL.isActive(environment), meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${device.health-sweep.interval-ms:60000}",
+            initialDelayString = "${device.health-sweep.initial-delay-ms:60000}")
+    public void sweepDeviceHealth() {
+        List<String> tenantCodes = tenantRepository.findAllActiveTenants().stream().map(Tenant::getCode).toList();
+
+        TenantJobRunner.Result result = runner.run(tenantCodes, this::sweepTenant);
+        if (result != null && (result.processed() > 0 || result.failed() > 0)) {
+            log.info("Device health sweep: {} tenant(s), {} device(s) marked offline, {} failed",
+                    result.tenants(), result.processed(), result.failed());
+        }
+    }
+
+    private int sweepTenant(String tenantCode) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+
+        try {
+            Integer offline = runner.transaction(transactionManager)
+                    .execute(status -> deviceService.checkDeviceHealth());
+            int count = offline != null ? offline : 0;
+
+            meterRegistry.counter("device.health.offline.transitions", "tenant", tenantCode).increment(count);
+            return count;
+        } catch (RuntimeException ex) {
+            outcome = "failure";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("device.health.sweep", "tenant", tenantCode, "outcome", outcome));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.metafit.scheduler;
+
+import com.metafit.cache.DeviceLivenessTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes coalesced device heartbeats to the tenant databases
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceLivenessFlushJob {
+
+    private final DeviceLivenessTable deviceLivenessTable;
+
+    @Scheduled(fixedDelayString = "${device.liveness.flush-interval-ms:10000}")
+    public void flushDeviceLiveness() {
+        int written = deviceLivenessTable.flush();
+
+        if (written > 0) {
+            log.debug("Flushed heartbeats of {} device(s)", written);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.metafit.scheduler;
+
+import com.metafit.entity.master.Tenant;
+import com.metafit.repository.master.TenantRepository;
+import com.metafit.service.MemberService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly move of ended memberships to EXPIRED, for every active tenant
+ *
+ * Each tenant is processed in chunks of set-based UPDATEs, one short transaction per
+ * chunk, with tenants running in parallel on a small bounded pool. In dry-run mode
+ * the members that would expire are only counted and logged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MembershipExpiryJob {
+
+    private final TenantRepository tenantRepository;
+    private final MemberService memberService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${membership.expiry.parallelism:4}")
+    private int parallelism;
+
+    @Value("${membership.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${membership.expiry.tenant-timeout-ms:300000}")
+    private long tenantTimeoutMs;
+
+    @Value("${membership.expiry.dry-run:false}")
+    private boolean dryRun;
+
+    private TenantJobRunner runner;
+
+    @PostConstruct
+    void init() {
+        this.runner = new TenantJobRunner("Membership expiry", "membership.expiry", parallelism, tenantTimeoutMs,
+                Threading.VIRTUAL.isActive(environment), meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Scheduled(cron = "${membership.expiry.cron:0 5 0 * * *}")
+    public void expireMemberships() {
+        LocalDate today = LocalDate.now();
+        List<String> tenantCodes = tenantRepository.findAllActiveTenants().stream().map(Tenant::getCode).toList();
+
+        TenantJobRunner.Result result = runner.run(tenantCodes, tenantCode -> expireTenant(tenantCode, today));
+        if (result == null) {
+            return;
+        }
+
+        log.info("Membership expiry{}: {} tenant(s), {} membership(s) {}, {} failed",
+                dryRun ? " (dry run)" : "", result.tenants(), result.processed(),
+                dryRun ? "due to expire" : "expired", result.failed());
+    }
+
+    private int expireTenant(String tenantCode, LocalDate today) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+
+        try {
+            int count = dryRun ? countDue(today) : expireInChunks(today);
+
+            if (!dryRun) {
+                meterRegistry.counter("membership.expiry.expired", "tenant", tenantCode).increment(count);
+            }
+            if (count > 0) {
+                log.info("Membership expiry for tenant {}: {} member(s) {}",
+                        tenantCode, count, dryRun ? "due to expire" : "expired");
+            }
+            return count;
+        } catch (RuntimeException ex) {
+            outcome = "failure";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("membership.expiry.run",
+                    "tenant", tenantCode, "outcome", outcome, "dry_run", String.valueOf(dryRun)));
+        }
+    }
+
+    private int countDue(LocalDate today) {
+        List<Long> due = memberService.findMembershipsToExpire(today);
+        log.debug("Members due to expire: {}", due);
+        return due.size();
+    }
+
+    private int expireInChunks(LocalDate today) {
+        TransactionTemplate transaction = runner.transaction(transactionManager);
+
+        int total = 0;
+        List<Long> expired;
+
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            expired = transaction.execute(status -> memberService.expireMembershipChunk(today, chunkSize));
+            total += expired != null ? expired.size() : 0;
+        } while (expired != null && expired.size() == chunkSize);
+
+        return total;
+    }
+}
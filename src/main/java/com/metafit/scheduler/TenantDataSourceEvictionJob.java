@@ -0,0 +1,27 @@
+package com.metafit.scheduler;
+
+import com.metafit.tenancy.TenantRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically closes tenant connection pools that have gone idle
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TenantDataSourceEvictionJob {
+
+    private final TenantRoutingDataSource tenantRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${tenant.datasource.eviction-interval-ms:60000}")
+    public void evictIdleTenantDataSources() {
+        int evicted = tenantRoutingDataSource.evictIdleTenants();
+
+        if (evicted > 0) {
+            log.info("Evicted {} idle tenant datasource(s)", evicted);
+        }
+    }
+}
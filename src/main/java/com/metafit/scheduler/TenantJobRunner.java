@@ -0,0 +1,107 @@
+package com.metafit.scheduler;
+
+import com.metafit.tenancy.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fans a scheduled job out over tenants on a small bounded pool
+ *
+ * Each tenant's task runs with that tenant bound and is given the job's per-tenant timeout;
+ * a tenant that times out is cancelled and counted under {@code <metricPrefix>.timeouts}.
+ * Parallelism stays bounded on virtual threads as well, since it caps concurrent tenant
+ * transactions rather than threads.
+ */
+@Slf4j
+public class TenantJobRunner {
+
+    private final String jobName;
+    private final String metricPrefix;
+    private final long tenantTimeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    public TenantJobRunner(String jobName, String metricPrefix, int parallelism, long tenantTimeoutMs,
+                           boolean virtualThreads, MeterRegistry meterRegistry) {
+        this.jobName = jobName;
+        this.metricPrefix = metricPrefix;
+        this.tenantTimeoutMs = tenantTimeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        String threadNamePrefix = metricPrefix.replace('.', '-') + "-";
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(threadNamePrefix);
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * Run the task once per tenant, with that tenant bound, and wait for all of them
+     * @param task Receives the tenant code and returns the number of items it processed
+     * @return Totals over all tenants, or null when the calling thread was interrupted
+     */
+    public Result run(List<String> tenantCodes, ToIntFunction<String> task) {
+        Map<String, Future<Integer>> runs = new LinkedHashMap<>();
+
+        for (String tenantCode : tenantCodes) {
+            runs.put(tenantCode, executor.submit(
+                    () -> TenantContext.callWithTenant(tenantCode, () -> task.applyAsInt(tenantCode))));
+        }
+
+        int processed = 0;
+        int failed = 0;
+
+        for (Map.Entry<String, Future<Integer>> run : runs.entrySet()) {
+            try {
+                processed += run.getValue().get(tenantTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                run.getValue().cancel(true);
+                meterRegistry.counter(metricPrefix + ".timeouts", "tenant", run.getKey()).increment();
+                log.warn("{} timed out for tenant: {}", jobName, run.getKey());
+                failed++;
+            } catch (ExecutionException ex) {
+                log.error("{} failed for tenant {}: {}", jobName, run.getKey(), ex.getCause().getMessage());
+                failed++;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        return new Result(tenantCodes.size(), processed, failed);
+    }
+
+    /**
+     * Transaction bounded by the per-tenant timeout
+     */
+    public TransactionTemplate transaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(tenantTimeoutMs)));
+        return transaction;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record Result(int tenants, int processed, int failed) {
+    }
+}
@@ -2,17 +2,16 @@ package com.metafit.security.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import com.metafit.entity.master.Tenant;
 import com.metafit.enums.TenantStatus;
-import com.metafit.repository.master.TenantRepository;
 import com.metafit.tenancy.TenantContext;
+import com.metafit.tenancy.TenantSnapshot;
+import com.metafit.tenancy.TenantSnapshotCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +24,9 @@ import java.util.Map;
 /**
  * Interceptor to enforce subscription status
  * Blocks access if subscription is expired beyond grace period
+ *
+ * Tenant state is read from {@link TenantSnapshotCache}, so the master DB is
+ * only queried when a snapshot is missing or stale.
  */
 @Slf4j
 @Component
@@ -32,12 +34,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SubscriptionInterceptor extends OncePerRequestFilter {
 
-    private final TenantRepository tenantRepository;
+    private final TenantSnapshotCache tenantSnapshotCache;
     private final ObjectMapper objectMapper;
 
-    @Value("${subscription.grace-period-days:7}")
-    private int gracePeriodDays;
-
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -53,7 +52,7 @@ public class SubscriptionInterceptor extends OncePerRequestFilter {
         }
 
         // Check subscription status
-        Tenant tenant = tenantRepository.findByCode(tenantCode).orElse(null);
+        TenantSnapshot tenant = tenantSnapshotCache.get(tenantCode).orElse(null);
 
         if (tenant == null) {
             log.error("Tenant not found in master DB: {}", tenantCode);
@@ -62,21 +61,41 @@ public class SubscriptionInterceptor extends OncePerRequestFilter {
         }
 
         // Check tenant status
-        if (!tenant.getStatus().equals(TenantStatus.ACTIVE)) {
-            log.warn("Tenant is not active: {} - Status: {}", tenantCode, tenant.getStatus());
+        if (!tenant.status().equals(TenantStatus.ACTIVE)) {
+            log.warn("Tenant is not active: {} - Status: {}", tenantCode, tenant.status());
 
-            if (tenant.getStatus().equals(TenantStatus.SUSPENDED)) {
+            if (tenant.status().equals(TenantStatus.SUSPENDED)) {
                 sendErrorResponse(response, 402,
                         "Your subscription has been suspended. Please contact support or renew your subscription.");
             } else {
                 sendErrorResponse(response, 403,
-                        "Access denied. Account status: " + tenant.getStatus());
+                        "Access denied. Account status: " + tenant.status());
             }
             return;
         }
 
-        // TODO: Check subscription expiry (when subscription entity is properly linked)
-        // For now, just check tenant status
+        // Check subscription expiry
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!tenant.subscriptionActive()) {
+            log.warn("Subscription is not active for tenant: {}", tenantCode);
+            sendErrorResponse(response, 402,
+                    "Your subscription has been suspended. Please contact support or renew your subscription.");
+            return;
+        }
+
+        if (tenant.isGracePeriodOver(now)) {
+            log.warn("Subscription expired for tenant: {} on {}", tenantCode, tenant.subscriptionEndDate());
+            sendErrorResponse(response, 402,
+                    "Your subscription expired on " + tenant.subscriptionEndDate().toLocalDate()
+                            + ". Please renew to continue using the service.");
+            return;
+        }
+
+        if (tenant.isSubscriptionExpired(now)) {
+            log.debug("Tenant {} is in subscription grace period until {}", tenantCode, tenant.graceEndDate());
+            response.setHeader("X-Subscription-Grace-Until", tenant.graceEndDate().toString());
+        }
 
         log.debug("Subscription check passed for tenant: {}", tenantCode);
         filterChain.doFilter(request, response);
@@ -21,6 +21,8 @@ import java.util.List;
  * JWT Authentication Filter
  * Validates JWT token and sets Spring Security context
  * Runs AFTER TenantFilter
+ *
+ * The token is verified and its claims extracted in a single parse (see JwtUtil.parseToken)
  */
 @Slf4j
 @Component
@@ -39,11 +41,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Get JWT token from header
             String token = extractToken(request);
 
-            if (token != null && jwtUtil.validateToken(token)) {
-                // Extract user details from token
-                String username = jwtUtil.getUsernameFromToken(token);
-                String tenantCode = jwtUtil.getTenantFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
+            JwtPrincipal principal = token != null ? jwtUtil.parseToken(token).orElse(null) : null;
+
+            if (principal != null) {
+                String username = principal.username();
+                String tenantCode = principal.tenantCode();
+                String role = principal.role();
 
                 log.debug("JWT valid - User: {}, Tenant: {}, Role: {}", username, tenantCode, role);
 
@@ -0,0 +1,17 @@
+package com.metafit.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified JWT (all claims the request pipeline needs)
+ */
+public record JwtPrincipal(
+        String username,
+        String tenantCode,
+        String role,
+        Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
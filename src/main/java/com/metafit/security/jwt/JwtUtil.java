@@ -2,31 +2,59 @@ package com.metafit.security.jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for JWT token operations
+ *
+ * The signing key and parser are built once at startup. {@link #parseToken(String)}
+ * verifies a token a single time and keeps the resulting principal in a bounded
+ * cache keyed by the token's SHA-256 hash until the token expires. A full cache
+ * drops expired principals first, then the slice that expires soonest.
  */
 @Slf4j
 @Component
 public class JwtUtil {
 
+    private static final Comparator<JwtPrincipal> EXPIRY_ORDER =
+            Comparator.comparing(JwtPrincipal::expiresAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private final Map<String, JwtPrincipal> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     /**
@@ -47,10 +75,57 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verify token once and extract username, tenant and role
+     *
+     * @return empty if the token is invalid or expired
+     */
+    public Optional<JwtPrincipal> parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String tokenHash = hashToken(token);
+
+        JwtPrincipal cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(tokenHash);
+            log.error("Expired JWT token for user: {}", cached.username());
+            return Optional.empty();
+        }
+
+        try {
+            Claims claims = getClaimsFromToken(token);
+            JwtPrincipal principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("tenant", String.class),
+                    claims.get("role", String.class),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+            );
+
+            cachePrincipal(tokenHash, principal, now);
+            log.debug("Token validated successfully");
+            return Optional.of(principal);
+
+        } catch (ExpiredJwtException ex) {
+            log.error("Expired JWT token: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            log.error("JWT claims string is empty: {}", ex.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Extract username from token
      */
@@ -83,26 +158,7 @@ public class JwtUtil {
      * Validate token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-
-            log.debug("Token validated successfully");
-            return true;
-
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token: {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty: {}", ex.getMessage());
-        }
-
-        return false;
+        return parseToken(token).isPresent();
     }
 
     /**
@@ -117,10 +173,51 @@ public class JwtUtil {
      * Extract all claims from token
      */
     private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private void cachePrincipal(String tokenHash, JwtPrincipal principal, Instant now) {
+        if (verifiedTokens.size() >= cacheMaxEntries) {
+            makeRoom(now);
+        }
+        verifiedTokens.put(tokenHash, principal);
+    }
+
+    /**
+     * Evicts a tenth of the cache in expiry order, so a full cache never drops every principal
+     * at once and the next requests do not all re-verify together
+     */
+    private synchronized void makeRoom(Instant now) {
+        if (verifiedTokens.size() < cacheMaxEntries) {
+            return;
+        }
+
+        verifiedTokens.values().removeIf(cached -> cached.isExpired(now));
+
+        int excess = verifiedTokens.size() - cacheMaxEntries + Math.max(1, cacheMaxEntries / 10);
+        if (excess > 0) {
+            log.debug("JWT cache full ({} entries), evicting {} soonest-expiring", verifiedTokens.size(), excess);
+            verifiedTokens.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(EXPIRY_ORDER))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(verifiedTokens::remove);
+        }
+    }
+
+    /**
+     * Tokens are cached by hash so raw bearer tokens are never kept in memory
+     */
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.metafit.service;
 
 import com.metafit.dto.request.attendance.CheckInRequest;
 import com.metafit.dto.request.attendance.CheckOutRequest;
+import com.metafit.dto.response.attendance.AttendancePageResponse;
 import com.metafit.dto.response.attendance.AttendanceResponse;
 import com.metafit.dto.response.attendance.MemberAttendanceItem;
 import com.metafit.dto.response.attendance.TodayAttendanceSummary;
@@ -24,7 +25,7 @@ public interface AttendanceService {
 
     long getTodayAttendanceCount();
 
-    List<AttendanceResponse> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate);
+    AttendancePageResponse getAttendanceByDateRange(LocalDate startDate, LocalDate endDate, String cursor, int size);
 
     List<MemberAttendanceItem> getMemberAttendanceHistory(Long memberId, int days);
 
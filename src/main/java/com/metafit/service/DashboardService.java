@@ -0,0 +1,17 @@
+package com.metafit.service;
+
+import com.metafit.dto.response.dashboard.DashboardStatsResponse;
+
+/**
+ * Dashboard Service Interface
+ * Serves the staff dashboard counters from a short-lived per-tenant cache.
+ */
+public interface DashboardService {
+
+    DashboardStatsResponse getDashboardStats();
+
+    /**
+     * Drop the current tenant's cached counters once the surrounding transaction commits
+     */
+    void invalidate();
+}
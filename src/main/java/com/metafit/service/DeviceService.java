@@ -68,6 +68,11 @@ public interface DeviceService {
      */
     DeviceCheckInResponse processCheckIn(DeviceCheckInRequest request);
 
+    /**
+     * Process scans a device buffered while offline, in one transaction
+     */
+    DeviceCheckInBatchResponse processCheckInBatch(DeviceCheckInBatchRequest request);
+
     /**
      * Process device heartbeat
      */
@@ -143,6 +148,8 @@ public interface DeviceService {
 
     /**
      * Mark devices as offline if no heartbeat
+     *
+     * @return number of devices that went offline
      */
-    void checkDeviceHealth();
+    int checkDeviceHealth();
 }
\ No newline at end of file
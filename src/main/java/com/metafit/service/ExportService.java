@@ -0,0 +1,20 @@
+package com.metafit.service;
+
+import com.metafit.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Export Service Interface
+ * Streams attendance and payment history for a date range as CSV or NDJSON.
+ */
+public interface ExportService {
+
+    void exportAttendance(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException;
+
+    void exportPayments(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException;
+}
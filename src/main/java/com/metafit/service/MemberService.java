@@ -5,12 +5,14 @@ import com.metafit.dto.request.member.CreateMemberRequest;
 import com.metafit.dto.request.member.RenewMembershipRequest;
 import com.metafit.dto.request.member.UpdateMemberRequest;
 import com.metafit.dto.response.member.MemberDetailResponse;
+import com.metafit.dto.response.member.MemberListItem;
 import com.metafit.dto.response.member.MemberResponse;
 import com.metafit.entity.Member;
 import com.metafit.enums.MemberStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface MemberService {
@@ -52,6 +54,13 @@ public interface MemberService {
      */
     List<MemberResponse> searchMembers(String query);
 
+    /**
+     * Lightweight typeahead suggestions by name or phone
+     * @param query Search query (name words or phone digits)
+     * @return List of matching members
+     */
+    List<MemberListItem> suggestMembers(String query);
+
     /**
      * Get members with membership expiring soon (within 7 days)
      * @return List of expiring members
@@ -101,7 +110,16 @@ public interface MemberService {
     void updateMemberStatus(Long id, MemberStatus status);
 
     /**
-     * Check and update expired memberships (scheduled task)
+     * Expire one chunk of ended memberships of the current tenant in a single statement
+     * @param today Memberships ending before this date expire
+     * @param chunkSize Maximum number of members to update
+     * @return IDs of members moved to EXPIRED
+     */
+    List<Long> expireMembershipChunk(LocalDate today, int chunkSize);
+
+    /**
+     * IDs of members that the expiry job would move to EXPIRED (dry run)
+     * @param today Memberships ending before this date expire
      */
-    void checkAndUpdateExpiredMemberships();
+    List<Long> findMembershipsToExpire(LocalDate today);
 }
\ No newline at end of file
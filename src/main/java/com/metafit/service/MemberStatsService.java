@@ -0,0 +1,32 @@
+package com.metafit.service;
+
+import com.metafit.entity.MemberStats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Member Stats Service Interface
+ * Maintains the per-member attendance and payment rollup inside the caller's transaction.
+ */
+public interface MemberStatsService {
+
+    void recordCheckIn(Long memberId, LocalDateTime checkInTime);
+
+    void recordCheckOut(Long memberId, LocalDateTime checkInTime, LocalDateTime checkOutTime);
+
+    void recordPayment(Long memberId, BigDecimal amount);
+
+    /**
+     * Recompute the rollup of every member of the current tenant from history
+     * @return number of member rows written
+     */
+    int rebuild();
+
+    /**
+     * Rollup rows by member ID; members without a row are absent
+     */
+    Map<Long, MemberStats> getStats(Collection<Long> memberIds);
+}
@@ -0,0 +1,39 @@
+package com.metafit.service;
+
+import com.metafit.dto.response.payment.DailyRevenueResponse;
+import com.metafit.dto.response.payment.RevenueReportResponse;
+import com.metafit.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Revenue Report Service Interface
+ * Maintains the daily revenue rollup inside the caller's transaction and answers revenue reports from it.
+ */
+public interface RevenueReportService {
+
+    void recordPayment(LocalDate paymentDate, PaymentMethod paymentMethod, BigDecimal amount);
+
+    RevenueReportResponse getTodayRevenue();
+
+    RevenueReportResponse getMonthRevenue(YearMonth month);
+
+    /**
+     * Revenue between dates (inclusive), broken down by payment method
+     */
+    RevenueReportResponse getRevenueBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Revenue per day between dates (inclusive); days without payments are omitted
+     */
+    List<DailyRevenueResponse> getDailyRevenue(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recompute the rollup of the current tenant from payment history
+     * @return number of day/method rows written
+     */
+    int rebuild();
+}
@@ -1,6 +1,7 @@
 package com.metafit.service;
 
 import com.metafit.dto.response.config.TenantConfigResponse;
+import com.metafit.enums.TenantStatus;
 
 /**
  * Tenant Configuration Service Interface
@@ -10,4 +11,9 @@ public interface TenantConfigService {
     TenantConfigResponse getCurrentTenantConfig();
 
     TenantConfigResponse updateTenantConfig(TenantConfigResponse configRequest);
+
+    /**
+     * Change a tenant's status and drop its cached snapshot after commit
+     */
+    void updateTenantStatus(Long tenantId, TenantStatus status);
 }
@@ -1,7 +1,9 @@
 package com.metafit.service.impl;
 
+import com.metafit.cache.OccupancyTracker;
 import com.metafit.dto.request.attendance.CheckInRequest;
 import com.metafit.dto.request.attendance.CheckOutRequest;
+import com.metafit.dto.response.attendance.AttendancePageResponse;
 import com.metafit.dto.response.attendance.AttendanceResponse;
 import com.metafit.dto.response.attendance.MemberAttendanceItem;
 import com.metafit.dto.response.attendance.TodayAttendanceSummary;
@@ -9,18 +11,24 @@ import com.metafit.entity.Attendance;
 import com.metafit.entity.Member;
 import com.metafit.enums.AttendanceSource;
 import com.metafit.enums.MemberStatus;
+import com.metafit.events.LiveEventBus;
 import com.metafit.exception.ResourceNotFoundException;
 import com.metafit.repository.AttendanceRepository;
 import com.metafit.repository.MemberRepository;
 import com.metafit.service.AttendanceService;
+import com.metafit.service.DashboardService;
+import com.metafit.service.MemberStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,8 +42,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class AttendanceServiceImpl implements AttendanceService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final char CURSOR_SEPARATOR = '_';
+
     private final AttendanceRepository attendanceRepository;
     private final MemberRepository memberRepository;
+    private final OccupancyTracker occupancyTracker;
+    private final LiveEventBus liveEventBus;
+    private final MemberStatsService memberStatsService;
+    private final DashboardService dashboardService;
 
     /**
      * Mark member check-in
@@ -70,11 +85,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
         LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
 
-        List<Attendance> todayAttendance = attendanceRepository
-                .findByMemberIdAndCheckInTimeBetween(request.getMemberId(), todayStart, todayEnd);
-
-        boolean alreadyCheckedIn = todayAttendance.stream()
-                .anyMatch(a -> a.getCheckOutTime() == null);
+        boolean alreadyCheckedIn = attendanceRepository
+                .existsTodayActiveCheckIn(request.getMemberId(), todayStart, todayEnd);
 
         if (alreadyCheckedIn) {
             log.warn("Member already checked in: {}", member.getFullName());
@@ -91,11 +103,16 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setCreatedBy(currentUsername);
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        occupancyTracker.recordCheckIn(savedAttendance.getId(), member.getId(), savedAttendance.getCheckInTime());
+        memberStatsService.recordCheckIn(member.getId(), savedAttendance.getCheckInTime());
+        dashboardService.invalidate();
 
         log.info("Check-in successful for member: {} at {}",
                 member.getFullName(), savedAttendance.getCheckInTime());
 
-        return AttendanceResponse.fromEntity(savedAttendance);
+        AttendanceResponse response = AttendanceResponse.fromEntity(savedAttendance);
+        liveEventBus.publish(LiveEventBus.CHECK_IN, response);
+        return response;
     }
 
     /**
@@ -105,7 +122,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     public AttendanceResponse checkOut(CheckOutRequest request) {
         log.info("Check-out requested for attendance: {}", request.getAttendanceId());
 
-        Attendance attendance = attendanceRepository.findById(request.getAttendanceId())
+        Attendance attendance = attendanceRepository.findByIdWithMember(request.getAttendanceId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Attendance record not found with ID: " + request.getAttendanceId()
                 ));
@@ -117,11 +134,16 @@ public class AttendanceServiceImpl implements AttendanceService {
 
         attendance.setCheckOutTime(LocalDateTime.now());
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        occupancyTracker.recordCheckOut(updatedAttendance.getId(), attendance.getMember().getId());
+        memberStatsService.recordCheckOut(attendance.getMember().getId(),
+                updatedAttendance.getCheckInTime(), updatedAttendance.getCheckOutTime());
 
         log.info("Check-out successful for member: {} at {}",
                 attendance.getMember().getFullName(), updatedAttendance.getCheckOutTime());
 
-        return AttendanceResponse.fromEntity(updatedAttendance);
+        AttendanceResponse response = AttendanceResponse.fromEntity(updatedAttendance);
+        liveEventBus.publish(LiveEventBus.CHECK_OUT, response);
+        return response;
     }
 
     /**
@@ -135,35 +157,73 @@ public class AttendanceServiceImpl implements AttendanceService {
         LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
         LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
 
-        List<Attendance> attendances = attendanceRepository
-                .findByCheckInTimeBetweenOrderByCheckInTimeDesc(todayStart, todayEnd);
+        // Projected with the member columns in one query; a single day is bounded
+        List<AttendanceResponse> attendances = attendanceRepository
+                .findResponsesBetween(todayStart, todayEnd, Pageable.unpaged());
 
         log.info("Today's attendance count: {}", attendances.size());
 
-        return attendances.stream()
-                .map(AttendanceResponse::fromEntity)
-                .collect(Collectors.toList());
+        return attendances;
     }
 
     /**
      * Get attendance by date range
+     * Keyset-paginated on (checkInTime, id), newest first
      */
     @Transactional(readOnly = true)
     @Override
-    public List<AttendanceResponse> getAttendanceByDateRange(
-            LocalDate startDate, LocalDate endDate) {
+    public AttendancePageResponse getAttendanceByDateRange(
+            LocalDate startDate, LocalDate endDate, String cursor, int size) {
+
+        log.debug("Fetching attendance from {} to {} (cursor: {}, size: {})", startDate, endDate, cursor, size);
 
-        log.debug("Fetching attendance from {} to {}", startDate, endDate);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
         LocalDateTime start = LocalDateTime.of(startDate, LocalTime.MIN);
         LocalDateTime end = LocalDateTime.of(endDate, LocalTime.MAX);
 
-        List<Attendance> attendances = attendanceRepository
-                .findByCheckInTimeBetweenOrderByCheckInTimeDesc(start, end);
+        // Fetch one extra row to know whether another page follows
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<AttendanceResponse> rows;
 
-        return attendances.stream()
-                .map(AttendanceResponse::fromEntity)
-                .collect(Collectors.toList());
+        if (cursor == null || cursor.isBlank()) {
+            rows = attendanceRepository.findResponsesBetween(start, end, limit);
+        } else {
+            Cursor position = parseCursor(cursor);
+            rows = attendanceRepository.findResponsesBetweenAfterCursor(
+                    start, end, position.checkInTime(), position.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<AttendanceResponse> items = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            AttendanceResponse last = items.get(items.size() - 1);
+            nextCursor = last.getCheckIn() + CURSOR_SEPARATOR + last.getId();
+        }
+
+        return AttendancePageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private Cursor parseCursor(String cursor) {
+        int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+        try {
+            return new Cursor(
+                    LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid attendance cursor: " + cursor);
+        }
+    }
+
+    private record Cursor(LocalDateTime checkInTime, Long id) {
     }
 
     /**
@@ -206,34 +266,21 @@ public class AttendanceServiceImpl implements AttendanceService {
 
     /**
      * Get today's attendance summary
+     * Served from the in-memory occupancy model
      */
-    @Transactional(readOnly = true)
     @Override
     public TodayAttendanceSummary getTodayAttendanceSummary() {
         log.debug("Fetching today's attendance summary");
 
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-
-        List<Attendance> attendances = attendanceRepository
-                .findByCheckInTimeBetweenOrderByCheckInTimeDesc(todayStart, todayEnd);
-
-        long totalCheckIns = attendances.size();
-        long currentlyInGym = attendances.stream()
-                .filter(a -> a.getCheckOutTime() == null)
-                .count();
-        long checkedOut = totalCheckIns - currentlyInGym;
-
-        LocalDateTime lastCheckIn = attendances.isEmpty()
-                ? null
-                : attendances.get(0).getCheckInTime();
+        OccupancyTracker.OccupancySnapshot occupancy = occupancyTracker.getSnapshot();
 
         TodayAttendanceSummary summary = new TodayAttendanceSummary(
-                totalCheckIns, currentlyInGym, checkedOut, lastCheckIn
+                occupancy.totalCheckIns(), occupancy.currentlyInGym(), occupancy.checkedOut(),
+                occupancy.lastCheckIn()
         );
 
         log.info("Today's summary - Total: {}, In Gym: {}, Checked Out: {}",
-                totalCheckIns, currentlyInGym, checkedOut);
+                occupancy.totalCheckIns(), occupancy.currentlyInGym(), occupancy.checkedOut());
 
         return summary;
     }
@@ -253,16 +300,8 @@ public class AttendanceServiceImpl implements AttendanceService {
     /**
      * Check if member is currently checked in
      */
-    @Transactional(readOnly = true)
     @Override
     public boolean isMemberCheckedIn(Long memberId) {
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-
-        List<Attendance> todayAttendance = attendanceRepository
-                .findByMemberIdAndCheckInTimeBetween(memberId, todayStart, todayEnd);
-
-        return todayAttendance.stream()
-                .anyMatch(a -> a.getCheckOutTime() == null);
+        return occupancyTracker.isCheckedIn(memberId);
     }
 }
@@ -13,6 +13,7 @@ import com.metafit.exception.ResourceNotFoundException;
 import com.metafit.exception.UnauthorizedException;
 import com.metafit.repository.UserRepository;
 import com.metafit.repository.master.TenantRepository;
+import com.metafit.security.jwt.JwtPrincipal;
 import com.metafit.security.jwt.JwtUtil;
 import com.metafit.service.AuthService;
 import com.metafit.tenancy.TenantContext;
@@ -126,14 +127,15 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse refreshToken(String refreshToken) {
         log.debug("Token refresh requested");
 
-        if (!jwtUtil.validateToken(refreshToken)) {
-            log.warn("Invalid refresh token");
-            throw new UnauthorizedException("Invalid or expired refresh token");
-        }
+        JwtPrincipal principal = jwtUtil.parseToken(refreshToken)
+                .orElseThrow(() -> {
+                    log.warn("Invalid refresh token");
+                    return new UnauthorizedException("Invalid or expired refresh token");
+                });
 
-        String username = jwtUtil.getUsernameFromToken(refreshToken).replace(":refresh", "");
-        String tenantCode = jwtUtil.getTenantFromToken(refreshToken);
-        String role = jwtUtil.getRoleFromToken(refreshToken);
+        String username = principal.username().replace(":refresh", "");
+        String tenantCode = principal.tenantCode();
+        String role = principal.role();
 
         // Generate new tokens
         String newToken = jwtUtil.generateToken(username, tenantCode, role);
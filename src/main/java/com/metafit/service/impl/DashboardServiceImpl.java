@@ -0,0 +1,143 @@
+package com.metafit.service.impl;
+
+import com.metafit.cache.TenantTtlCache;
+import com.metafit.dto.response.dashboard.DashboardStatsResponse;
+import com.metafit.dto.response.payment.RevenueReportResponse;
+import com.metafit.events.MembershipsExpiredEvent;
+import com.metafit.repository.AttendanceRepository;
+import com.metafit.repository.MemberRepository;
+import com.metafit.repository.MemberRepository.MemberDashboardCountsView;
+import com.metafit.service.DashboardService;
+import com.metafit.service.RevenueReportService;
+import com.metafit.tenancy.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard counters assembled from count-only queries
+ *
+ * The member, attendance and revenue counts run concurrently, under the requesting tenant,
+ * on a small bounded pool shared by all tenants; when the pool is saturated a query runs on
+ * the request thread instead. Results are cached per tenant for a few seconds and dropped on writes.
+ */
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final int EXPIRING_WITHIN_DAYS = 7;
+
+    private final MemberRepository memberRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final RevenueReportService revenueReportService;
+    private final TenantTtlCache<DashboardStatsResponse> statsCache;
+    private final ExecutorService executor;
+    private final long timeoutMs;
+
+    public DashboardServiceImpl(
+            MemberRepository memberRepository,
+            AttendanceRepository attendanceRepository,
+            RevenueReportService revenueReportService,
+            @Value("${dashboard.stats.cache-ttl-ms:5000}") long cacheTtlMs,
+            @Value("${dashboard.stats.parallelism:8}") int parallelism,
+            @Value("${dashboard.stats.queue-capacity:100}") int queueCapacity,
+            @Value("${dashboard.stats.timeout-ms:10000}") long timeoutMs) {
+        this.memberRepository = memberRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.revenueReportService = revenueReportService;
+        this.statsCache = new TenantTtlCache<>(cacheTtlMs);
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("dashboard-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public DashboardStatsResponse getDashboardStats() {
+        return statsCache.get(this::loadStats);
+    }
+
+    @Override
+    public void invalidate() {
+        String tenantCode = TenantContext.getTenantId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    statsCache.invalidate(tenantCode);
+                }
+            });
+        } else {
+            statsCache.invalidate(tenantCode);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMembershipsExpired(MembershipsExpiredEvent event) {
+        statsCache.invalidate(event.tenantCode());
+    }
+
+    private DashboardStatsResponse loadStats() {
+        log.debug("Loading dashboard stats");
+
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<MemberDashboardCountsView> members = submit(() ->
+                memberRepository.getDashboardCounts(today, today.plusDays(EXPIRING_WITHIN_DAYS)));
+        CompletableFuture<Long> checkIns = submit(() ->
+                attendanceRepository.countByCheckInTimeBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX)));
+        CompletableFuture<RevenueReportResponse> revenue = submit(revenueReportService::getTodayRevenue);
+
+        try {
+            CompletableFuture.allOf(members, checkIns, revenue).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Dashboard statistics timed out", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load dashboard statistics", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading dashboard statistics", ex);
+        }
+
+        return DashboardStatsResponse.builder()
+                .activeMembers(members.join().getActiveMembers())
+                .expiringLittle(members.join().getExpiringMembers())
+                .todayCheckIns(checkIns.join())
+                .todayRevenue(revenue.join().getTotalRevenue())
+                .todayTransactions(revenue.join().getTransactionCount())
+                .build();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(TenantContext.wrap(query), executor);
+        } catch (RejectedExecutionException ex) {
+            // Pool saturated: run on the request thread, which already carries the tenant
+            return CompletableFuture.completedFuture(query.get());
+        }
+    }
+}
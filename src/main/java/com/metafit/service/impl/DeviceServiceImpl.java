@@ -1,15 +1,24 @@
 package com.metafit.service.impl;
 
+import com.metafit.cache.CheckInDedupWindow;
+import com.metafit.cache.DeviceApiKeyIndex;
+import com.metafit.cache.DeviceLivenessTable;
+import com.metafit.cache.DeviceSnapshot;
+import com.metafit.cache.OccupancyTracker;
+import com.metafit.cache.TenantTtlCache;
 import com.metafit.dto.request.CreateDeviceRequest;
+import com.metafit.dto.request.DeviceCheckInBatchRequest;
 import com.metafit.dto.request.DeviceCheckInRequest;
 import com.metafit.dto.request.DeviceHeartbeatRequest;
 import com.metafit.dto.request.EnrollMemberDeviceRequest;
+import com.metafit.dto.response.DeviceCheckInBatchResponse;
 import com.metafit.dto.response.DeviceCheckInResponse;
 import com.metafit.dto.response.DeviceDetailResponse;
 import com.metafit.dto.response.DeviceEventLogResponse;
 import com.metafit.dto.response.DeviceResponse;
 import com.metafit.dto.response.DeviceStatsResponse;
 import com.metafit.dto.response.MemberDeviceMappingResponse;
+import com.metafit.dto.response.attendance.AttendanceResponse;
 import com.metafit.entity.Attendance;
 import com.metafit.entity.Device;
 import com.metafit.entity.DeviceEventLog;
@@ -20,6 +29,9 @@ import com.metafit.enums.DeviceEventType;
 import com.metafit.enums.DeviceStatus;
 import com.metafit.enums.DeviceType;
 import com.metafit.enums.MemberStatus;
+import com.metafit.events.DeviceActivityEvent;
+import com.metafit.events.DeviceEventLogWriter;
+import com.metafit.events.LiveEventBus;
 import com.metafit.exception.DuplicateResourceException;
 import com.metafit.exception.ResourceNotFoundException;
 import com.metafit.repository.AttendanceRepository;
@@ -27,18 +39,32 @@ import com.metafit.repository.DeviceEventLogRepository;
 import com.metafit.repository.DeviceRepository;
 import com.metafit.repository.MemberDeviceMappingRepository;
 import com.metafit.repository.MemberRepository;
+import com.metafit.service.DashboardService;
 import com.metafit.service.DeviceService;
+import com.metafit.service.MemberStatsService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -52,9 +78,29 @@ public class DeviceServiceImpl implements DeviceService {
     private final DeviceEventLogRepository eventLogRepository;
     private final MemberRepository memberRepository;
     private final AttendanceRepository attendanceRepository;
+    private final DeviceEventLogWriter eventLogWriter;
+    private final DeviceLivenessTable livenessTable;
+    private final DeviceApiKeyIndex apiKeyIndex;
+    private final CheckInDedupWindow dedupWindow;
+    private final OccupancyTracker occupancyTracker;
+    private final LiveEventBus liveEventBus;
+    private final MemberStatsService memberStatsService;
+    private final DashboardService dashboardService;
+    private final PlatformTransactionManager transactionManager;
 
     private static final int HEARTBEAT_TIMEOUT_MINUTES = 5;
 
+    @Value("${device.stats.cache-ttl-ms:5000}")
+    private long statsCacheTtlMs;
+
+    // Short-lived per-tenant cache for the device stats widget
+    private TenantTtlCache<DeviceStatsResponse> deviceStatsCache;
+
+    @PostConstruct
+    void init() {
+        this.deviceStatsCache = new TenantTtlCache<>(statsCacheTtlMs);
+    }
+
     // ==================== DEVICE MANAGEMENT ====================
 
     @Override
@@ -95,10 +141,12 @@ public class DeviceServiceImpl implements DeviceService {
         device.setWebhookUrl("/api/devices/webhook/" + apiKey);
 
         device = deviceRepository.save(device);
+        apiKeyIndex.update(device);
+        deviceStatsCache.invalidate();
         log.info("Device created with ID: {}", device.getId());
 
         // Log event
-        logDeviceEvent(device, DeviceEventType.CONFIG_CHANGE,
+        logDeviceEvent(device.getId(), DeviceEventType.CONFIG_CHANGE,
                 null, null, true, "Device registered");
 
         return convertToResponse(device);
@@ -132,7 +180,10 @@ public class DeviceServiceImpl implements DeviceService {
     @Override
     @Transactional(readOnly = true)
     public List<DeviceResponse> getOnlineDevices() {
-        return deviceRepository.findActiveAndOnlineDevices().stream()
+        // Online state may only be known in memory until the next liveness flush
+        return deviceRepository.findByActiveTrue().stream()
+                .peek(livenessTable::attach)
+                .filter(Device::isOnline)
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
@@ -154,8 +205,9 @@ public class DeviceServiceImpl implements DeviceService {
         device.setNotes(request.getNotes());
 
         device = deviceRepository.save(device);
+        apiKeyIndex.update(device);
 
-        logDeviceEvent(device, DeviceEventType.CONFIG_CHANGE,
+        logDeviceEvent(device.getId(), DeviceEventType.CONFIG_CHANGE,
                 null, null, true, "Device configuration updated");
 
         return convertToResponse(device);
@@ -169,12 +221,15 @@ public class DeviceServiceImpl implements DeviceService {
 
         device.setStatus(status);
         deviceRepository.save(device);
+        apiKeyIndex.update(device);
+        deviceStatsCache.invalidate();
+        livenessTable.setOnline(id, status == DeviceStatus.ONLINE);
 
         DeviceEventType eventType = status == DeviceStatus.ONLINE
                 ? DeviceEventType.DEVICE_ONLINE
                 : DeviceEventType.DEVICE_OFFLINE;
 
-        logDeviceEvent(device, eventType, null, null, true,
+        logDeviceEvent(device.getId(), eventType, null, null, true,
                 "Device status changed to " + status);
     }
 
@@ -187,6 +242,9 @@ public class DeviceServiceImpl implements DeviceService {
         device.setActive(false);
         device.setStatus(DeviceStatus.DISABLED);
         deviceRepository.save(device);
+        apiKeyIndex.update(device);
+        deviceStatsCache.invalidate();
+        livenessTable.remove(id);
     }
 
     @Override
@@ -196,9 +254,10 @@ public class DeviceServiceImpl implements DeviceService {
 
         // TODO: Implement actual connection test based on connection type
         // For now, just check if device has pinged recently
-        if (device.getLastPing() != null) {
+        livenessTable.attach(device);
+        if (device.getLatestPing() != null) {
             LocalDateTime threshold = LocalDateTime.now().minusMinutes(HEARTBEAT_TIMEOUT_MINUTES);
-            return device.getLastPing().isAfter(threshold);
+            return device.getLatestPing().isAfter(threshold);
         }
 
         return false;
@@ -207,17 +266,97 @@ public class DeviceServiceImpl implements DeviceService {
     // ==================== CHECK-IN PROCESSING ====================
 
     @Override
-    @Transactional
     public DeviceCheckInResponse processCheckIn(DeviceCheckInRequest request) {
         log.info("Processing check-in from device with identifier: {}", request.getDeviceIdentifier());
 
-        // Validate API key
-        Device device = deviceRepository.findByApiKey(request.getApiKey())
+        // Retries carrying the same idempotency key get the committed result of the first attempt
+        return dedupWindow.execute(request.getApiKey(), request.getIdempotencyKey(),
+                () -> transactionTemplate().execute(status -> doProcessCheckIn(request)));
+    }
+
+    @Override
+    public DeviceCheckInBatchResponse processCheckInBatch(DeviceCheckInBatchRequest request) {
+        log.info("Processing batch of {} buffered check-ins", request.getScans().size());
+
+        DeviceSnapshot device = apiKeyIndex.findByApiKey(request.getApiKey())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid device API key"));
 
-        if (!device.canProcessCheckIns()) {
+        // A device replaying its buffer is back online
+        if (livenessTable.recordPing(device.id(), device.isPersistedOnline())) {
+            logDeviceEvent(device.id(), DeviceEventType.DEVICE_ONLINE, null, null, true,
+                    "Device came online");
+        }
+
+        // Claim every idempotency key before processing, so a retry racing this batch (single
+        // or batched) waits for its outcome instead of checking the member in a second time
+        List<DeviceCheckInBatchRequest.Scan> scans = request.getScans();
+        Map<String, CheckInDedupWindow.Claim> claims = new HashMap<>();
+        List<Integer> owned = new ArrayList<>();
+        for (int i = 0; i < scans.size(); i++) {
+            String idempotencyKey = scans.get(i).getIdempotencyKey();
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                owned.add(i);
+            } else if (!claims.containsKey(idempotencyKey)) {
+                CheckInDedupWindow.Claim claim = dedupWindow.claim(request.getApiKey(), idempotencyKey);
+                claims.put(idempotencyKey, claim);
+                if (claim.owner()) {
+                    owned.add(i);
+                }
+            }
+        }
+
+        List<DeviceCheckInResponse> processed;
+        try {
+            processed = transactionTemplate().execute(status -> doProcessCheckInBatch(device, scans, owned));
+        } catch (RuntimeException ex) {
+            claims.values().stream()
+                    .filter(CheckInDedupWindow.Claim::owner)
+                    .forEach(claim -> dedupWindow.fail(claim, ex));
+            throw ex;
+        }
+
+        // Committed: publish the results, then collect those of keys answered by another attempt
+        DeviceCheckInResponse[] results = new DeviceCheckInResponse[scans.size()];
+        for (int k = 0; k < owned.size(); k++) {
+            int i = owned.get(k);
+            results[i] = processed.get(k);
+            CheckInDedupWindow.Claim claim = claims.get(scans.get(i).getIdempotencyKey());
+            if (claim != null) {
+                dedupWindow.complete(claim, results[i]);
+            }
+        }
+
+        int accepted = 0;
+        for (int i = 0; i < scans.size(); i++) {
+            if (results[i] == null) {
+                // Repeated key, or one claimed by an earlier attempt: share that attempt's result
+                int index = i;
+                results[i] = dedupWindow.await(claims.get(scans.get(i).getIdempotencyKey()),
+                        () -> transactionTemplate().execute(status ->
+                                doProcessCheckInBatch(device, scans, List.of(index)).get(0)));
+            }
+            if (Boolean.TRUE.equals(results[i].getSuccess())) {
+                accepted++;
+            }
+        }
+
+        return DeviceCheckInBatchResponse.builder()
+                .total(scans.size())
+                .accepted(accepted)
+                .rejected(scans.size() - accepted)
+                .duplicates(scans.size() - owned.size())
+                .results(List.of(results))
+                .build();
+    }
+
+    private DeviceCheckInResponse doProcessCheckIn(DeviceCheckInRequest request) {
+        // Validate API key (served from the in-memory index)
+        DeviceSnapshot device = apiKeyIndex.findByApiKey(request.getApiKey())
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid device API key"));
+
+        if (!device.canProcessCheckIns(livenessTable.isOnline(device.id(), device.isPersistedOnline()))) {
             String msg = "Device is not active or offline";
-            logDeviceEvent(device, DeviceEventType.DEVICE_ERROR, request.getDeviceIdentifier(),
+            logDeviceEvent(device.id(), DeviceEventType.DEVICE_ERROR, request.getDeviceIdentifier(),
                     null, false, msg);
             return DeviceCheckInResponse.builder()
                     .success(false)
@@ -226,19 +365,120 @@ public class DeviceServiceImpl implements DeviceService {
                     .build();
         }
 
-        // Update device ping
-        device.updatePing();
-        deviceRepository.save(device);
+        // Update device ping (coalesced in memory, flushed by DeviceLivenessFlushJob)
+        livenessTable.recordPing(device.id(), device.isPersistedOnline());
 
         // Find member mapping
         MemberDeviceMapping mapping = mappingRepository
-                .findByDeviceAndIdentifier(device.getId(), request.getDeviceIdentifier())
+                .findByDeviceAndIdentifier(device.id(), request.getDeviceIdentifier())
                 .orElse(null);
 
+        // Check if already checked in
+        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
+        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
+        boolean alreadyCheckedIn = mapping != null && attendanceRepository
+                .existsTodayActiveCheckIn(mapping.getMember().getId(), todayStart, todayEnd);
+
+        DeviceCheckInResponse response = checkInMember(device, request.getDeviceIdentifier(), mapping,
+                alreadyCheckedIn, LocalDateTime.now());
+
+        if (Boolean.TRUE.equals(response.getSuccess())) {
+            deviceRepository.addCheckIns(device.id(), 1, response.getCheckInTime());
+        }
+        return response;
+    }
+
+    /**
+     * Check in the scans at the given indices, returning their results in the same order
+     * A member can check in once per scan day, as long as no session of that day is still open
+     */
+    private List<DeviceCheckInResponse> doProcessCheckInBatch(DeviceSnapshot device,
+                                                              List<DeviceCheckInBatchRequest.Scan> scans,
+                                                              List<Integer> indices) {
+        List<DeviceCheckInResponse> results = new ArrayList<>(indices.size());
+        if (indices.isEmpty()) {
+            return results;
+        }
+
+        if (!device.canProcessCheckIns(true)) {
+            String msg = "Device is not active or offline";
+            for (int i : indices) {
+                logDeviceEvent(device.id(), DeviceEventType.DEVICE_ERROR, scans.get(i).getDeviceIdentifier(),
+                        null, false, msg);
+                results.add(DeviceCheckInResponse.builder()
+                        .success(false)
+                        .message(msg)
+                        .errorCode("DEVICE_UNAVAILABLE")
+                        .build());
+            }
+            return results;
+        }
+
+        // Bulk lookups: all mappings of the scanned identifiers, then the open sessions of their
+        // members on every scanned day
+        Set<String> identifiers = indices.stream()
+                .map(i -> scans.get(i).getDeviceIdentifier())
+                .collect(Collectors.toSet());
+        Map<String, MemberDeviceMapping> mappings = mappingRepository
+                .findActiveByDeviceAndIdentifiers(device.id(), identifiers).stream()
+                .collect(Collectors.toMap(MemberDeviceMapping::getDeviceIdentifier, m -> m, (a, b) -> a));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstDay = indices.stream()
+                .map(i -> scanTime(scans.get(i), now).toLocalDate())
+                .min(LocalDate::compareTo)
+                .orElse(now.toLocalDate());
+        Set<Long> memberIds = mappings.values().stream()
+                .map(m -> m.getMember().getId())
+                .collect(Collectors.toSet());
+        Map<LocalDate, Set<Long>> openSessionsByDay = new HashMap<>();
+        if (!memberIds.isEmpty()) {
+            for (Object[] row : attendanceRepository.findOpenCheckIns(
+                    memberIds, firstDay.atStartOfDay(), now.toLocalDate().atTime(LocalTime.MAX))) {
+                LocalDate day = ((LocalDateTime) row[1]).toLocalDate();
+                openSessionsByDay.computeIfAbsent(day, d -> new HashSet<>()).add((Long) row[0]);
+            }
+        }
+
+        long accepted = 0;
+        LocalDateTime lastCheckIn = null;
+        for (int i : indices) {
+            DeviceCheckInBatchRequest.Scan scan = scans.get(i);
+            LocalDateTime scanTime = scanTime(scan, now);
+            Set<Long> openSessions = openSessionsByDay.computeIfAbsent(scanTime.toLocalDate(), d -> new HashSet<>());
+            MemberDeviceMapping mapping = mappings.get(scan.getDeviceIdentifier());
+            boolean alreadyCheckedIn = mapping != null && openSessions.contains(mapping.getMember().getId());
+
+            DeviceCheckInResponse result = checkInMember(device, scan.getDeviceIdentifier(), mapping,
+                    alreadyCheckedIn, scanTime);
+            results.add(result);
+
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                openSessions.add(mapping.getMember().getId());
+                accepted++;
+                if (lastCheckIn == null || result.getCheckInTime().isAfter(lastCheckIn)) {
+                    lastCheckIn = result.getCheckInTime();
+                }
+            }
+        }
+
+        if (accepted > 0) {
+            deviceRepository.addCheckIns(device.id(), accepted, lastCheckIn);
+        }
+        return results;
+    }
+
+    /**
+     * Check a mapped member in, or explain why not
+     * The caller updates the device counters for successful check-ins
+     */
+    private DeviceCheckInResponse checkInMember(DeviceSnapshot device, String deviceIdentifier,
+                                                MemberDeviceMapping mapping, boolean alreadyCheckedIn,
+                                                LocalDateTime checkInTime) {
         if (mapping == null) {
             String msg = "Device identifier not registered";
-            logDeviceEvent(device, DeviceEventType.DEVICE_NOT_FOUND,
-                    request.getDeviceIdentifier(), null, false, msg);
+            logDeviceEvent(device.id(), DeviceEventType.DEVICE_NOT_FOUND,
+                    deviceIdentifier, null, false, msg);
             return DeviceCheckInResponse.builder()
                     .success(false)
                     .message(msg)
@@ -251,8 +491,8 @@ public class DeviceServiceImpl implements DeviceService {
         // Check membership status
         if (!MemberStatus.ACTIVE.equals(member.getStatus())) {
             String msg = "Membership is " + member.getStatus();
-            logDeviceEvent(device, DeviceEventType.ACCESS_DENIED,
-                    request.getDeviceIdentifier(), member.getId(), false, msg);
+            logDeviceEvent(device.id(), DeviceEventType.ACCESS_DENIED,
+                    deviceIdentifier, member.getId(), false, msg);
             return DeviceCheckInResponse.builder()
                     .success(false)
                     .message("Access denied: " + msg)
@@ -263,13 +503,10 @@ public class DeviceServiceImpl implements DeviceService {
                     .build();
         }
 
-        // Check if already checked in
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-        if (attendanceRepository.findTodayActiveCheckIn(member.getId(), todayStart, todayEnd).isPresent()) {
+        if (alreadyCheckedIn) {
             String msg = "Member already checked in today";
-            logDeviceEvent(device, DeviceEventType.DUPLICATE_CHECK_IN,
-                    request.getDeviceIdentifier(), member.getId(), false, msg);
+            logDeviceEvent(device.id(), DeviceEventType.DUPLICATE_CHECK_IN,
+                    deviceIdentifier, member.getId(), false, msg);
             return DeviceCheckInResponse.builder()
                     .success(false)
                     .message(msg)
@@ -282,26 +519,26 @@ public class DeviceServiceImpl implements DeviceService {
         // Create attendance record
         Attendance attendance = Attendance.builder()
                 .member(member)
-                .checkInTime(LocalDateTime.now())
-                .source(mapDeviceTypeToAttendanceSource(device.getDeviceType()))
-                .createdBy("DEVICE:" + device.getName())
+                .checkInTime(checkInTime)
+                .source(mapDeviceTypeToAttendanceSource(device.deviceType()))
+                .createdBy("DEVICE:" + device.name())
                 .build();
 
         attendance = attendanceRepository.save(attendance);
-
-        // Update counters
-        device.incrementCheckIns();
-        deviceRepository.save(device);
+        occupancyTracker.recordCheckIn(attendance.getId(), member.getId(), attendance.getCheckInTime());
+        memberStatsService.recordCheckIn(member.getId(), attendance.getCheckInTime());
+        dashboardService.invalidate();
+        liveEventBus.publish(LiveEventBus.CHECK_IN, AttendanceResponse.fromEntity(attendance));
 
         mapping.recordUsage();
         mappingRepository.save(mapping);
 
         // Log success
-        logDeviceEvent(device, DeviceEventType.CHECK_IN,
-                request.getDeviceIdentifier(), member.getId(), true,
+        logDeviceEvent(device.id(), DeviceEventType.CHECK_IN,
+                deviceIdentifier, member.getId(), true,
                 "Check-in successful", attendance.getId());
 
-        log.info("Check-in successful for member: {} via device: {}", member.getFullName(), device.getName());
+        log.info("Check-in successful for member: {} via device: {}", member.getFullName(), device.name());
 
         return DeviceCheckInResponse.builder()
                 .success(true)
@@ -314,17 +551,37 @@ public class DeviceServiceImpl implements DeviceService {
                 .build();
     }
 
+    private LocalDateTime scanTime(DeviceCheckInBatchRequest.Scan scan, LocalDateTime fallback) {
+        if (scan.getTimestamp() == null) {
+            return fallback;
+        }
+        LocalDateTime scanTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(scan.getTimestamp()),
+                ZoneId.systemDefault());
+        // Device clocks drift; never record a check-in in the future
+        return scanTime.isAfter(fallback) ? fallback : scanTime;
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private TransactionTemplate readOnlyTransactionTemplate() {
+        TransactionTemplate template = transactionTemplate();
+        template.setReadOnly(true);
+        return template;
+    }
+
     @Override
-    @Transactional
     public void processHeartbeat(DeviceHeartbeatRequest request) {
-        Device device = deviceRepository.findByApiKey(request.getApiKey())
+        DeviceSnapshot device = apiKeyIndex.findByApiKey(request.getApiKey())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid device API key"));
 
-        device.updatePing();
-        deviceRepository.save(device);
-
-        logDeviceEvent(device, DeviceEventType.HEARTBEAT, null, null, true,
-                "Heartbeat received");
+        // Heartbeats only update the liveness table; just the transition is logged.
+        // No transaction, so a heartbeat never checks out a tenant connection
+        if (livenessTable.recordPing(device.id(), device.isPersistedOnline())) {
+            logDeviceEvent(device.id(), DeviceEventType.DEVICE_ONLINE, null, null, true,
+                    "Device came online");
+        }
     }
 
     // ==================== MEMBER ENROLLMENT ====================
@@ -358,7 +615,7 @@ public class DeviceServiceImpl implements DeviceService {
 
         mapping = mappingRepository.save(mapping);
 
-        logDeviceEvent(device, DeviceEventType.ENROLLMENT,
+        logDeviceEvent(device.getId(), DeviceEventType.ENROLLMENT,
                 request.getDeviceIdentifier(), member.getId(), true,
                 "Member enrolled on device");
 
@@ -374,7 +631,7 @@ public class DeviceServiceImpl implements DeviceService {
         mapping.setActive(false);
         mappingRepository.save(mapping);
 
-        logDeviceEvent(mapping.getDevice(), DeviceEventType.UNENROLLMENT,
+        logDeviceEvent(mapping.getDevice().getId(), DeviceEventType.UNENROLLMENT,
                 mapping.getDeviceIdentifier(), mapping.getMember().getId(),
                 true, "Member unenrolled from device");
     }
@@ -437,31 +694,26 @@ public class DeviceServiceImpl implements DeviceService {
     // ==================== STATISTICS ====================
 
     @Override
-    @Transactional(readOnly = true)
     public DeviceStatsResponse getDeviceStats() {
-        long total = deviceRepository.count();
-        long online = deviceRepository.countByStatus(DeviceStatus.ONLINE);
-        long offline = deviceRepository.countByStatus(DeviceStatus.OFFLINE);
-        long active = deviceRepository.findByActiveTrue().size();
-
-        // Today's check-ins across all devices
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        long todayCheckIns = deviceRepository.findAll().stream()
-                .mapToLong(d -> eventLogRepository.countTodayCheckInsByDevice(d.getId(), todayStart, todayEnd))
-                .sum();
-
-        // Recent errors (last 24 hours)
-        long errors = eventLogRepository.findRecentErrors(LocalDateTime.now().minusHours(24)).size();
-
-        return DeviceStatsResponse.builder()
-                .totalDevices(total)
-                .onlineDevices(online)
-                .offlineDevices(offline)
-                .activeDevices(active)
-                .totalCheckInsToday(todayCheckIns)
-                .errorCount(errors)
-                .build();
+        // Only a cache miss opens a transaction (and checks out a tenant connection)
+        return deviceStatsCache.get(() -> readOnlyTransactionTemplate().execute(status -> {
+            LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+            LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
+
+            // Counts for the whole widget in a single aggregate query (errors = last 24 hours)
+            DeviceRepository.DeviceStatsView stats = deviceRepository.getDeviceStats(
+                    todayStart, todayEnd, LocalDateTime.now().minusHours(24));
+
+            return DeviceStatsResponse.builder()
+                    .totalDevices(stats.getTotalDevices())
+                    .onlineDevices(stats.getOnlineDevices())
+                    .offlineDevices(stats.getOfflineDevices())
+                    .activeDevices(stats.getActiveDevices())
+                    .totalCheckInsToday(stats.getTotalCheckInsToday())
+                    .totalEnrolledMembers(stats.getTotalEnrolledMembers())
+                    .errorCount(stats.getErrorCount())
+                    .build();
+        }));
     }
 
     @Override
@@ -484,48 +736,60 @@ public class DeviceServiceImpl implements DeviceService {
 
     @Override
     public Boolean validateApiKey(String apiKey) {
-        return deviceRepository.existsByApiKey(apiKey);
+        return apiKeyIndex.findByApiKey(apiKey).isPresent();
     }
 
     @Override
     @Transactional
-    public void checkDeviceHealth() {
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(HEARTBEAT_TIMEOUT_MINUTES);
-        List<Device> offlineDevices = deviceRepository.findOfflineDevicesSince(threshold);
-
-        for (Device device : offlineDevices) {
-            if (device.getStatus() != DeviceStatus.OFFLINE) {
-                device.setStatus(DeviceStatus.OFFLINE);
-                deviceRepository.save(device);
+    public int checkDeviceHealth() {
+        List<Long> expiredIds = livenessTable.expireStale();
+        Set<Long> liveOnlineIds = livenessTable.getOnlineDeviceIds();
+
+        // Single set-based UPDATE for devices that timed out in memory
+        // plus ONLINE rows whose heartbeats this node never saw
+        List<Long> offlineIds = deviceRepository.markStaleDevicesOffline(
+                livenessTable.staleThreshold(),
+                LocalDateTime.now(),
+                liveOnlineIds.toArray(Long[]::new),
+                expiredIds.toArray(Long[]::new));
+        apiKeyIndex.updateStatus(offlineIds, DeviceStatus.OFFLINE);
+
+        // Devices that only came online in memory have no row to update but did transition;
+        // rows still ONLINE were pinged recently through another node, so this node's entry was stale
+        Set<Long> transitioned = new LinkedHashSet<>(offlineIds);
+        transitioned.addAll(expiredIds);
+        List<Long> unchanged = expiredIds.stream().filter(id -> !offlineIds.contains(id)).toList();
+        if (!unchanged.isEmpty()) {
+            List<Long> aliveElsewhere = deviceRepository.findIdsByIdInAndStatus(unchanged, DeviceStatus.ONLINE);
+            aliveElsewhere.forEach(livenessTable::remove);
+            aliveElsewhere.forEach(transitioned::remove);
+        }
 
-                logDeviceEvent(device, DeviceEventType.DEVICE_OFFLINE, null, null, true,
-                        "Device marked offline due to heartbeat timeout");
-            }
+        for (Long deviceId : transitioned) {
+            logDeviceEvent(deviceId, DeviceEventType.DEVICE_OFFLINE, null, null, true,
+                    "Device marked offline due to heartbeat timeout");
         }
+
+        return transitioned.size();
     }
 
     // ==================== HELPER METHODS ====================
 
-    private void logDeviceEvent(Device device, DeviceEventType eventType,
+    private void logDeviceEvent(Long deviceId, DeviceEventType eventType,
                                 String deviceIdentifier, Long memberId,
                                 boolean success, String message) {
-        logDeviceEvent(device, eventType, deviceIdentifier, memberId, success, message, null);
+        logDeviceEvent(deviceId, eventType, deviceIdentifier, memberId, success, message, null);
     }
 
-    private void logDeviceEvent(Device device, DeviceEventType eventType,
+    private void logDeviceEvent(Long deviceId, DeviceEventType eventType,
                                 String deviceIdentifier, Long memberId,
                                 boolean success, String message, Long attendanceId) {
-        DeviceEventLog log = DeviceEventLog.builder()
-                .device(device)
-                .eventType(eventType)
-                .deviceIdentifier(deviceIdentifier)
-                .memberId(memberId)
-                .success(success)
-                .message(message)
-                .attendanceId(attendanceId)
-                .build();
+        // Written behind the request by DeviceEventLogWriter in tenant batches
+        eventLogWriter.enqueue(deviceId, eventType, deviceIdentifier,
+                memberId, success, message, attendanceId);
 
-        eventLogRepository.save(log);
+        liveEventBus.publish(LiveEventBus.DEVICE_EVENT, new DeviceActivityEvent(deviceId, eventType,
+                deviceIdentifier, memberId, success, message, LocalDateTime.now()));
     }
 
     private AttendanceSource mapDeviceTypeToAttendanceSource(DeviceType deviceType) {
@@ -538,6 +802,7 @@ public class DeviceServiceImpl implements DeviceService {
     }
 
     private DeviceResponse convertToResponse(Device device) {
+        livenessTable.attach(device);
         return DeviceResponse.builder()
                 .id(device.getId())
                 .name(device.getName())
@@ -551,7 +816,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .status(device.getStatus())
                 .connectionType(device.getConnectionType())
                 .active(device.getActive())
-                .lastPing(device.getLastPing())
+                .lastPing(device.getLatestPing())
                 .lastCheckIn(device.getLastCheckIn())
                 .totalCheckIns(device.getTotalCheckIns())
                 .webhookUrl(device.getWebhookUrl())
@@ -561,6 +826,7 @@ public class DeviceServiceImpl implements DeviceService {
     }
 
     private DeviceDetailResponse convertToDetailResponse(Device device) {
+        livenessTable.attach(device);
         long enrolledMembers = mappingRepository.countActiveMappingsByMember(device.getId());
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
@@ -582,7 +848,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .active(device.getActive())
                 .configuration(device.getConfiguration())
                 .notes(device.getNotes())
-                .lastPing(device.getLastPing())
+                .lastPing(device.getLatestPing())
                 .lastCheckIn(device.getLastCheckIn())
                 .totalCheckIns(device.getTotalCheckIns())
                 .enrolledMembers(enrolledMembers)
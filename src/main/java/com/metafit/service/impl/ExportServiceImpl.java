@@ -0,0 +1,140 @@
+package com.metafit.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metafit.dto.response.attendance.AttendanceResponse;
+import com.metafit.dto.response.payment.PaymentResponse;
+import com.metafit.enums.ExportFormat;
+import com.metafit.repository.AttendanceRepository;
+import com.metafit.repository.PaymentRepository;
+import com.metafit.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams export rows from a database cursor straight to the response
+ *
+ * Rows are projected DTOs read with a JDBC fetch size, so nothing accumulates in
+ * the persistence context; output is flushed after the first row and then every
+ * chunk, keeping memory flat and the first byte early regardless of the range.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<String> ATTENDANCE_COLUMNS = List.of(
+            "id", "member_id", "member_name", "member_phone", "check_in", "check_out",
+            "duration_minutes", "source", "created_by");
+
+    private static final List<String> PAYMENT_COLUMNS = List.of(
+            "id", "member_id", "member_name", "member_phone", "amount", "method",
+            "paid_at", "transaction_id", "notes");
+
+    private final AttendanceRepository attendanceRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.flush-rows:500}")
+    private int flushRows;
+
+    @Override
+    public void exportAttendance(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException {
+        log.info("Exporting attendance from {} to {} as {}", startDate, endDate, format);
+
+        try (Stream<AttendanceResponse> rows = attendanceRepository.streamResponsesBetween(
+                LocalDateTime.of(startDate, LocalTime.MIN), LocalDateTime.of(endDate, LocalTime.MAX))) {
+
+            long written = write(rows.iterator(), format, ATTENDANCE_COLUMNS, a -> new Object[]{
+                    a.getId(), a.getMemberId(), a.getMemberName(), a.getMemberPhone(), a.getCheckIn(),
+                    a.getCheckOut(), a.getDurationMinutes(), a.getSource(), a.getCreatedBy()}, out);
+
+            log.info("Exported {} attendance rows", written);
+        }
+    }
+
+    @Override
+    public void exportPayments(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException {
+        log.info("Exporting payments from {} to {} as {}", startDate, endDate, format);
+
+        try (Stream<PaymentResponse> rows = paymentRepository.streamResponsesBetween(
+                LocalDateTime.of(startDate, LocalTime.MIN), LocalDateTime.of(endDate, LocalTime.MAX))) {
+
+            long written = write(rows.iterator(), format, PAYMENT_COLUMNS, p -> new Object[]{
+                    p.getId(), p.getMemberId(), p.getMemberName(), p.getMemberPhone(), p.getAmount(),
+                    p.getMethod(), p.getPaidAt(), p.getTransactionId(), p.getNotes()}, out);
+
+            log.info("Exported {} payment rows", written);
+        }
+    }
+
+    private <T> long write(Iterator<T> rows, ExportFormat format, List<String> columns,
+                           Function<T, Object[]> csvValues, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, csvValues.apply(row));
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+
+            count++;
+            if (count == 1 || count % flushRows == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
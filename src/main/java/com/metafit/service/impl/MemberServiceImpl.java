@@ -1,32 +1,43 @@
 package com.metafit.service.impl;
 
+import com.metafit.cache.MemberTypeaheadIndex;
 import com.metafit.dto.request.member.CreateMemberRequest;
 import com.metafit.dto.request.member.RenewMembershipRequest;
 import com.metafit.dto.request.member.UpdateMemberRequest;
 import com.metafit.dto.response.member.MemberDetailResponse;
+import com.metafit.dto.response.member.MemberListItem;
 import com.metafit.dto.response.member.MemberResponse;
-import com.metafit.entity.Attendance;
 import com.metafit.entity.Member;
-import com.metafit.entity.Trainer;
+import com.metafit.entity.MemberStats;
 import com.metafit.enums.MemberStatus;
+import com.metafit.events.MembershipsExpiredEvent;
 import com.metafit.exception.DuplicateResourceException;
 import com.metafit.exception.ResourceNotFoundException;
-import com.metafit.repository.AttendanceRepository;
 import com.metafit.repository.MemberRepository;
-import com.metafit.repository.PaymentRepository;
 import com.metafit.repository.TrainerRepository;
+import com.metafit.service.DashboardService;
 import com.metafit.service.MemberService;
+import com.metafit.service.MemberStatsService;
+import com.metafit.tenancy.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,9 +46,16 @@ import java.util.stream.Collectors;
 public class MemberServiceImpl implements MemberService {
 
     private final MemberRepository memberRepository;
-    private final AttendanceRepository attendanceRepository;
-    private final PaymentRepository paymentRepository;
     private final TrainerRepository trainerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberTypeaheadIndex typeaheadIndex;
+    private final MemberStatsService memberStatsService;
+    private final DashboardService dashboardService;
+
+    private static final Pattern DIGITS_ONLY = Pattern.compile("\\d+");
+
+    @Value("${member.search.max-results:20}")
+    private int searchLimit;
 
     @Override
     @Transactional
@@ -75,6 +93,8 @@ public class MemberServiceImpl implements MemberService {
                 .build();
 
         member = memberRepository.save(member);
+        typeaheadIndex.upsert(member);
+        dashboardService.invalidate();
         log.info("Member created successfully with ID: {}", member.getId());
 
         return convertToResponse(member);
@@ -95,25 +115,43 @@ public class MemberServiceImpl implements MemberService {
     @Transactional(readOnly = true)
     public Page<MemberResponse> getAllMembers(Pageable pageable) {
         log.debug("Fetching all members with pagination");
-        return memberRepository.findAllByOrderByCreatedAtDesc(pageable)
-                .map(this::convertToResponse);
+        return convertToResponses(memberRepository.findAllByOrderByCreatedAtDesc(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<MemberResponse> getMembersByStatus(MemberStatus status, Pageable pageable) {
         log.debug("Fetching members with status: {}", status);
-        return memberRepository.findByStatusOrderByCreatedAtDesc(status, pageable)
-                .map(this::convertToResponse);
+        return convertToResponses(memberRepository.findByStatusOrderByCreatedAtDesc(status, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MemberResponse> searchMembers(String query) {
         log.debug("Searching members with query: {}", query);
-        return memberRepository.searchByNameOrPhone(query).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return List.of();
+        }
+
+        return convertToResponses(searchIndexed(trimmed));
+    }
+
+    // Not transactional: an index hit never checks out a connection, and the fallback is a single
+    // repository query in its own read-only transaction that maps only basic columns
+    @Override
+    public List<MemberListItem> suggestMembers(String query) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return List.of();
+        }
+
+        // Served from memory when the typeahead index is enabled and holds this tenant
+        return typeaheadIndex.search(trimmed, searchLimit)
+                .orElseGet(() -> searchIndexed(trimmed).stream()
+                        .map(MemberListItem::fromEntity)
+                        .collect(Collectors.toList()));
     }
 
     @Override
@@ -123,18 +161,14 @@ public class MemberServiceImpl implements MemberService {
         LocalDate today = LocalDate.now();
         LocalDate sevenDaysFromNow = today.plusDays(7);
 
-        return memberRepository.findExpiringMembers(today, sevenDaysFromNow).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(memberRepository.findExpiringMembers(today, sevenDaysFromNow));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MemberResponse> getExpiredMembers() {
         log.debug("Fetching expired members");
-        return memberRepository.findExpiredMembers(LocalDate.now()).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(memberRepository.findExpiredMembers(LocalDate.now()));
     }
 
     @Override
@@ -173,6 +207,8 @@ public class MemberServiceImpl implements MemberService {
 
         member.setUpdatedBy(updatedBy);
         member = memberRepository.save(member);
+        typeaheadIndex.upsert(member);
+        dashboardService.invalidate();
 
         log.info("Member updated successfully: {}", id);
         return convertToResponse(member);
@@ -194,6 +230,8 @@ public class MemberServiceImpl implements MemberService {
         member.setUpdatedBy(renewedBy);
 
         member = memberRepository.save(member);
+        typeaheadIndex.upsert(member);
+        dashboardService.invalidate();
         log.info("Membership renewed successfully for member ID: {}", request.getMemberId());
 
         return convertToResponse(member);
@@ -210,6 +248,8 @@ public class MemberServiceImpl implements MemberService {
         // Soft delete by changing status
         member.setStatus(MemberStatus.CANCELLED);
         memberRepository.save(member);
+        typeaheadIndex.upsert(member);
+        dashboardService.invalidate();
 
         log.info("Member soft deleted: {}", id);
     }
@@ -230,34 +270,92 @@ public class MemberServiceImpl implements MemberService {
 
         member.setStatus(status);
         memberRepository.save(member);
+        typeaheadIndex.upsert(member);
+        dashboardService.invalidate();
     }
 
     @Override
     @Transactional
-    public void checkAndUpdateExpiredMemberships() {
-        log.info("Checking and updating expired memberships");
+    public List<Long> expireMembershipChunk(LocalDate today, int chunkSize) {
+        List<Long> expiredIds = memberRepository.expireMembershipsChunk(today, LocalDateTime.now(), chunkSize);
 
-        List<Member> expiredMembers = memberRepository.findExpiredMembers(LocalDate.now());
-
-        for (Member member : expiredMembers) {
-            member.setStatus(MemberStatus.EXPIRED);
-            memberRepository.save(member);
-            log.debug("Updated member {} to EXPIRED status", member.getId());
+        if (!expiredIds.isEmpty()) {
+            log.debug("Updated {} members to EXPIRED status", expiredIds.size());
+            eventPublisher.publishEvent(new MembershipsExpiredEvent(TenantContext.getTenantId(), expiredIds));
         }
+        return expiredIds;
+    }
 
-        log.info("Updated {} expired memberships", expiredMembers.size());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findMembershipsToExpire(LocalDate today) {
+        return memberRepository.findExpiredMemberIds(today);
     }
 
     // ============ Helper Methods ============
 
+    private List<Member> searchIndexed(String query) {
+        // Digit-only input is a phone number or its last digits; anything else is a name
+        return DIGITS_ONLY.matcher(query).matches()
+                ? memberRepository.searchByPhoneDigits(query, searchLimit)
+                : memberRepository.searchByName(query.toLowerCase(), escapeLike(query.toLowerCase()), searchLimit);
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private MemberResponse convertToResponse(Member member) {
-        String trainerName = null;
-        if (member.getAssignedTrainerId() != null) {
-            trainerName = trainerRepository.findById(member.getAssignedTrainerId())
-                    .map(Trainer::getFullName)
-                    .orElse(null);
+        return convertToResponses(List.of(member)).get(0);
+    }
+
+    /**
+     * Map a page or list of members, resolving their trainer names and rollup stats in one query each
+     */
+    private List<MemberResponse> convertToResponses(List<Member> members) {
+        Map<Long, String> trainerNames = trainerNames(members);
+        Map<Long, MemberStats> stats = memberStats(members);
+        return members.stream()
+                .map(member -> convertToResponse(member, trainerNames, stats))
+                .collect(Collectors.toList());
+    }
+
+    private Page<MemberResponse> convertToResponses(Page<Member> members) {
+        Map<Long, String> trainerNames = trainerNames(members.getContent());
+        Map<Long, MemberStats> stats = memberStats(members.getContent());
+        return members.map(member -> convertToResponse(member, trainerNames, stats));
+    }
+
+    private Map<Long, MemberStats> memberStats(List<Member> members) {
+        return memberStatsService.getStats(members.stream()
+                .map(Member::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private Map<Long, String> trainerNames(List<Member> members) {
+        Set<Long> trainerIds = members.stream()
+                .map(Member::getAssignedTrainerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (trainerIds.isEmpty()) {
+            return Map.of();
         }
 
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : trainerRepository.findNamesByIds(trainerIds)) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return names;
+    }
+
+    private MemberResponse convertToResponse(Member member, Map<Long, String> trainerNames,
+                                             Map<Long, MemberStats> stats) {
+        String trainerName = member.getAssignedTrainerId() != null
+                ? trainerNames.get(member.getAssignedTrainerId())
+                : null;
+        MemberStats memberStats = stats.get(member.getId());
+
         return MemberResponse.builder()
                 .id(member.getId())
                 .fullName(member.getFullName())
@@ -273,16 +371,12 @@ public class MemberServiceImpl implements MemberService {
                 .isExpiringSoon(member.isExpiringSoon())
                 .isExpired(member.isExpired())
                 .createdAt(member.getCreatedAt())
+                .totalVisits(memberStats != null ? memberStats.getTotalVisits() : 0L)
+                .lastCheckIn(memberStats != null ? memberStats.getLastCheckIn() : null)
                 .build();
     }
 
     private MemberDetailResponse convertToDetailResponse(Member member) {
-        String trainerName = null;
-        if (member.getAssignedTrainerId() != null) {
-            trainerName = trainerRepository.findById(member.getAssignedTrainerId())
-                    .map(Trainer::getFullName)
-                    .orElse(null);
-        }
 
         // Calculate age
         Integer age = null;
@@ -296,14 +390,11 @@ public class MemberServiceImpl implements MemberService {
             daysRemaining = (int) ChronoUnit.DAYS.between(LocalDate.now(), member.getMembershipEndDate());
         }
 
-        // Get statistics
-        Long totalAttendance = attendanceRepository.countByMemberId(member.getId());
-        Long attendanceThisMonth = attendanceRepository.countByMemberIdAndCheckInTimeBetween(
+        // Get trainer name and statistics from the member_stats rollup in one query
+        MemberRepository.MemberDetailStatsView stats = memberRepository.getMemberDetailStats(
                 member.getId(),
-                LocalDate.now().withDayOfMonth(1).atStartOfDay(),
-                LocalDate.now().plusDays(1).atStartOfDay()
+                LocalDate.now().withDayOfMonth(1)
         );
-        Double totalPayments = paymentRepository.sumAmountByMemberId(member.getId());
 
         return MemberDetailResponse.builder()
                 .id(member.getId())
@@ -323,7 +414,7 @@ public class MemberServiceImpl implements MemberService {
                 .membershipPlan(member.getMembershipPlan())
                 .membershipAmount(member.getMembershipAmount())
                 .assignedTrainerId(member.getAssignedTrainerId())
-                .assignedTrainerName(trainerName)
+                .assignedTrainerName(stats.getTrainerName())
                 .trainerNotes(member.getTrainerNotes())
                 .notes(member.getNotes())
                 .expiringSoon(member.isExpiringSoon())
@@ -332,12 +423,11 @@ public class MemberServiceImpl implements MemberService {
                 .updatedAt(member.getUpdatedAt())
                 .createdBy(member.getCreatedBy())
                 .updatedBy(member.getUpdatedBy())
-                .totalAttendance(totalAttendance)
-                .attendanceThisMonth(attendanceThisMonth)
-                .totalPayments(totalPayments != null ? totalPayments : 0.0)
-                .lastCheckIn(attendanceRepository.findTopByMemberIdOrderByCheckInTimeDesc(member.getId())
-                        .map(Attendance::getCheckInTime)
-                        .orElse(null))
+                .totalAttendance(stats.getTotalAttendance())
+                .attendanceThisMonth(stats.getAttendanceThisMonth())
+                .totalPayments(stats.getTotalPayments() != null ? stats.getTotalPayments().doubleValue() : 0.0)
+                .lastCheckIn(stats.getLastCheckIn())
+                .averageDurationMinutes(stats.getAverageDurationMinutes())
                 .build();
     }
 }
\ No newline at end of file
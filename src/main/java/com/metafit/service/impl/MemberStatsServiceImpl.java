@@ -0,0 +1,67 @@
+package com.metafit.service.impl;
+
+import com.metafit.entity.MemberStats;
+import com.metafit.repository.MemberStatsRepository;
+import com.metafit.service.MemberStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MemberStatsServiceImpl implements MemberStatsService {
+
+    private final MemberStatsRepository memberStatsRepository;
+
+    @Override
+    public void recordCheckIn(Long memberId, LocalDateTime checkInTime) {
+        memberStatsRepository.recordCheckIn(memberId, checkInTime,
+                checkInTime.toLocalDate().withDayOfMonth(1), LocalDateTime.now());
+    }
+
+    @Override
+    public void recordCheckOut(Long memberId, LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        long durationMinutes = Duration.between(checkInTime, checkOutTime).toMinutes();
+        if (memberStatsRepository.recordCheckOut(memberId, durationMinutes, LocalDateTime.now()) == 0) {
+            log.warn("No stats row for member {} on check-out; run a stats rebuild", memberId);
+        }
+    }
+
+    @Override
+    public void recordPayment(Long memberId, BigDecimal amount) {
+        memberStatsRepository.recordPayment(memberId, amount,
+                LocalDate.now().withDayOfMonth(1), LocalDateTime.now());
+    }
+
+    @Override
+    public int rebuild() {
+        log.info("Rebuilding member stats");
+
+        int rows = memberStatsRepository.rebuildAll(LocalDate.now().withDayOfMonth(1), LocalDateTime.now());
+
+        log.info("Rebuilt stats for {} members", rows);
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, MemberStats> getStats(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Map.of();
+        }
+        return memberStatsRepository.findByMemberIdIn(memberIds).stream()
+                .collect(Collectors.toMap(MemberStats::getMemberId, Function.identity()));
+    }
+}
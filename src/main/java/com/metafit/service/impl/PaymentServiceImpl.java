@@ -9,12 +9,14 @@ import com.metafit.enums.PaymentMethod;
 import com.metafit.exception.ResourceNotFoundException;
 import com.metafit.repository.MemberRepository;
 import com.metafit.repository.PaymentRepository;
+import com.metafit.service.DashboardService;
+import com.metafit.service.MemberStatsService;
 import com.metafit.service.PaymentService;
+import com.metafit.service.RevenueReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -29,6 +31,9 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final MemberRepository memberRepository;
+    private final MemberStatsService memberStatsService;
+    private final RevenueReportService revenueReportService;
+    private final DashboardService dashboardService;
 
     @Override
     public PaymentResponse createPayment(CreatePaymentRequest request, String currentUsername) {
@@ -50,6 +55,10 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setCreatedBy(currentUsername);
 
         Payment savedPayment = paymentRepository.save(payment);
+        memberStatsService.recordPayment(member.getId(), savedPayment.getAmount());
+        revenueReportService.recordPayment(savedPayment.getPaymentDate().toLocalDate(),
+                savedPayment.getPaymentMethod(), savedPayment.getAmount());
+        dashboardService.invalidate();
 
         log.info("Payment created successfully: {} for member: {}",
                 savedPayment.getId(), member.getFullName());
@@ -87,25 +96,6 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional(readOnly = true)
     @Override
     public RevenueReportResponse getTodayRevenue() {
-        log.debug("Calculating today's revenue");
-
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-
-        List<Payment> payments = paymentRepository.findTodayPayments(todayStart, todayEnd);
-
-        BigDecimal totalRevenue = payments.stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Map<String, BigDecimal> breakdown = payments.stream()
-                .collect(Collectors.groupingBy(
-                        p -> p.getPaymentMethod().name(),
-                        Collectors.reducing(BigDecimal.ZERO, Payment::getAmount, BigDecimal::add)
-                ));
-
-        log.info("Today's revenue: {} from {} transactions", totalRevenue, payments.size());
-
-        return new RevenueReportResponse(totalRevenue, (long) payments.size(), breakdown);
+        return revenueReportService.getTodayRevenue();
     }
 }
@@ -0,0 +1,94 @@
+package com.metafit.service.impl;
+
+import com.metafit.dto.response.payment.DailyRevenueResponse;
+import com.metafit.dto.response.payment.RevenueReportResponse;
+import com.metafit.enums.PaymentMethod;
+import com.metafit.repository.RevenueDailyRepository;
+import com.metafit.service.RevenueReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RevenueReportServiceImpl implements RevenueReportService {
+
+    private final RevenueDailyRepository revenueDailyRepository;
+
+    @Override
+    public void recordPayment(LocalDate paymentDate, PaymentMethod paymentMethod, BigDecimal amount) {
+        revenueDailyRepository.recordPayment(paymentDate, paymentMethod.name(), amount, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueReportResponse getTodayRevenue() {
+        LocalDate today = LocalDate.now();
+        return getRevenueBetween(today, today);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueReportResponse getMonthRevenue(YearMonth month) {
+        return getRevenueBetween(month.atDay(1), month.atEndOfMonth());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueReportResponse getRevenueBetween(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        log.debug("Calculating revenue from {} to {}", startDate, endDate);
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long transactionCount = 0;
+        Map<String, BigDecimal> breakdown = new HashMap<>();
+
+        for (Object[] row : revenueDailyRepository.sumByPaymentMethodBetween(startDate, endDate)) {
+            PaymentMethod method = (PaymentMethod) row[0];
+            BigDecimal amount = (BigDecimal) row[1];
+
+            totalRevenue = totalRevenue.add(amount);
+            transactionCount += ((Number) row[2]).longValue();
+            breakdown.put(method.name(), amount);
+        }
+
+        log.info("Revenue from {} to {}: {} from {} transactions", startDate, endDate, totalRevenue, transactionCount);
+
+        return new RevenueReportResponse(totalRevenue, transactionCount, breakdown);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyRevenueResponse> getDailyRevenue(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        return revenueDailyRepository.sumByDayBetween(startDate, endDate);
+    }
+
+    @Override
+    public int rebuild() {
+        log.info("Rebuilding daily revenue");
+
+        revenueDailyRepository.deleteAllRows();
+        int rows = revenueDailyRepository.rebuildAll(LocalDateTime.now());
+
+        log.info("Rebuilt {} daily revenue rows", rows);
+        return rows;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+}
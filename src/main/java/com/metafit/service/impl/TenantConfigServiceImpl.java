@@ -4,14 +4,18 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.metafit.dto.response.config.TenantConfigResponse;
 import com.metafit.entity.master.Tenant;
+import com.metafit.enums.TenantStatus;
 import com.metafit.exception.ResourceNotFoundException;
 import com.metafit.repository.master.TenantRepository;
 import com.metafit.service.TenantConfigService;
 import com.metafit.tenancy.TenantContext;
+import com.metafit.tenancy.TenantSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service for tenant configuration
@@ -23,6 +27,7 @@ public class TenantConfigServiceImpl implements TenantConfigService {
 
     private final TenantRepository tenantRepository;
     private final ObjectMapper objectMapper;
+    private final TenantSnapshotCache tenantSnapshotCache;
 
     /**
      * Get current tenant configuration
@@ -93,4 +98,29 @@ public class TenantConfigServiceImpl implements TenantConfigService {
             throw new RuntimeException("Failed to update configuration", e);
         }
     }
+
+    /**
+     * Update tenant status
+     * The cached snapshot is dropped once the master transaction commits, so a concurrent
+     * request cannot reload the old status into it
+     */
+    @Transactional(transactionManager = "masterTransactionManager")
+    @Override
+    public void updateTenantStatus(Long tenantId, TenantStatus status) {
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Tenant not found with ID: " + tenantId
+                ));
+
+        log.info("Updating status for tenant {} to {}", tenant.getCode(), status);
+        tenantRepository.updateTenantStatus(tenantId, status);
+
+        String tenantCode = tenant.getCode();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tenantSnapshotCache.invalidate(tenantCode);
+            }
+        });
+    }
 }
@@ -207,12 +207,12 @@ public class TrainerServiceImpl implements TrainerService {
     public List<MemberResponse> getTrainerMembers(Long trainerId) {
         log.debug("Fetching members for trainer ID: {}", trainerId);
 
-        // Validate trainer exists
-        trainerRepository.findById(trainerId)
+        // Validate trainer exists; every member here shares its name, so no per-member lookup
+        Trainer trainer = trainerRepository.findById(trainerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + trainerId));
 
         return memberRepository.findByAssignedTrainerId(trainerId).stream()
-                .map(this::convertMemberToResponse)
+                .map(member -> convertMemberToResponse(member, trainer.getFullName()))
                 .collect(Collectors.toList());
     }
 
@@ -369,7 +369,7 @@ public class TrainerServiceImpl implements TrainerService {
                 .build();
     }
 
-    private MemberResponse convertMemberToResponse(Member member) {
+    private MemberResponse convertMemberToResponse(Member member, String trainerName) {
         return MemberResponse.builder()
                 .id(member.getId())
                 .fullName(member.getFullName())
@@ -381,6 +381,7 @@ public class TrainerServiceImpl implements TrainerService {
                 .membershipEndDate(member.getMembershipEndDate())
                 .membershipPlan(member.getMembershipPlan())
                 .assignedTrainerId(member.getAssignedTrainerId())
+                .assignedTrainerName(trainerName)
                 .isExpiringSoon(member.isExpiringSoon())
                 .isExpired(member.isExpired())
                 .createdAt(member.getCreatedAt())
@@ -2,8 +2,16 @@ package com.metafit.tenancy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.function.Supplier;
+
 /**
  * Thread-safe context holder for current tenant information
+ *
+ * The tenant is bound to the current thread only, so work handed to another thread must
+ * carry it along: wrap the task with {@link #wrap(Runnable)} / {@link #wrap(Supplier)}, or
+ * submit it to an executor decorated with {@link TenantTaskDecorator}. Code that switches
+ * tenants itself should prefer {@link #runWithTenant} / {@link #callWithTenant}, whose
+ * binding ends with the call like a {@code ScopedValue} binding, over set/clear pairs.
  */
 @Slf4j
 public class TenantContext {
@@ -25,4 +33,52 @@ public class TenantContext {
         log.debug("Clearing tenant context");
         CURRENT_TENANT.remove();
     }
-}
\ No newline at end of file
+
+    /**
+     * Run an action with the given tenant bound (none when null), restoring the previous binding afterwards
+     */
+    public static void runWithTenant(String tenantId, Runnable action) {
+        callWithTenant(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call an action with the given tenant bound (none when null), restoring the previous binding afterwards
+     */
+    public static <T> T callWithTenant(String tenantId, Supplier<T> action) {
+        String previous = CURRENT_TENANT.get();
+        bind(tenantId);
+        try {
+            return action.get();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Capture the current tenant so the task runs under it on whichever thread executes it
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> runWithTenant(tenantId, task);
+    }
+
+    /**
+     * Capture the current tenant so the task runs under it on whichever thread executes it,
+     * e.g. {@code CompletableFuture.supplyAsync(TenantContext.wrap(query), executor)}
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> callWithTenant(tenantId, task);
+    }
+
+    private static void bind(String tenantId) {
+        if (tenantId != null) {
+            CURRENT_TENANT.set(tenantId);
+        } else {
+            CURRENT_TENANT.remove();
+        }
+    }
+}
@@ -1,26 +1,89 @@
 package com.metafit.tenancy;
 
+import com.metafit.exception.TenantConnectionLimitException;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
 import javax.sql.DataSource;
-import java.util.HashMap;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Dynamic routing datasource that switches database connections based on tenant context
+ *
+ * Tenant pools are created lazily on first use: the tenant code is resolved to its
+ * database name (Tenant.dbName in the master DB) and a Hikari pool is registered.
+ * Pool sizes are resolved per tenant (plan or explicit override). Pools that stay idle
+ * are retired again, and the least recently used idle pools are retired whenever a new
+ * pool would exceed the node-wide connection budget. If nothing can be evicted, the new
+ * pool is shrunk to what is left of the budget, and when nothing is left the registration
+ * is rejected with a {@link TenantConnectionLimitException}, so the budget is a hard cap.
+ *
+ * Tenant pools live in a concurrent registry that is read without locking on every
+ * connection request. Registration reserves budget and publishes the pool in one critical
+ * section, so concurrent registrations cannot overshoot the budget. A retired pool leaves
+ * the registry at once but is only closed after a grace period with nothing checked out,
+ * so a request that resolved it just before retirement still gets its connection; should
+ * it meet a closed pool anyway, the checkout is routed again to the tenant's live pool.
+ *
+ * With the connection gate enabled, checkouts from a tenant pool first take a permit
+ * from a fair per-tenant semaphore sized like the pool. Waiters park in FIFO order
+ * outside Hikari, so thousands of virtual threads do not contend on the pool. A tenant
+ * whose queue is full, or whose wait times out, gets a {@link TenantConnectionLimitException}
+ * straight away, so a noisy tenant cannot hold other tenants' requests hostage.
  */
 @Slf4j
 public class TenantRoutingDataSource extends AbstractRoutingDataSource {
 
-    private final Map<Object, Object> tenantDataSources = new HashMap<>();
+    private static final String DEFAULT_TENANT = "default";
+    private static final long UNKNOWN_TENANT_RETRY_MS = 60000;
+
+    private final Map<String, TenantPool> tenantPools = new ConcurrentHashMap<>();
+    private final Map<String, Long> unknownTenants = new ConcurrentHashMap<>();
+    private final Queue<TenantPool> retiredPools = new ConcurrentLinkedQueue<>();
+    // A j.u.c. lock rather than a monitor, so virtual threads waiting to register do not pin their carriers
+    private final ReentrantLock registryLock = new ReentrantLock();
     private final String datasourceUrlPrefix;
     private final String datasourceUsername;
     private final String datasourcePassword;
     private final String datasourceDriverClassName;
 
+    private Function<String, Optional<String>> tenantDatabaseResolver = tenantCode -> Optional.empty();
+    private Function<String, Integer> poolSizeResolver = tenantCode -> null;
+    private Supplier<MeterRegistry> meterRegistrySupplier = () -> null;
+    private int maximumPoolSize = 5;
+    private int minimumIdle = 1;
+    private long connectionTimeoutMs = 30000;
+    private int maxTotalConnections = 200;
+    private long poolIdleTimeoutMs = 1800000;
+    private boolean connectionGateEnabled = true;
+    private long connectionGateTimeoutMs = 5000;
+    private int maxWaitersPerConnection = 4;
+    private int retryAfterSeconds = 2;
+
     public TenantRoutingDataSource(
             String urlPrefix,
             String username,
@@ -32,13 +95,92 @@ public class TenantRoutingDataSource extends AbstractRoutingDataSource {
         this.datasourcePassword = password;
         this.datasourceDriverClassName = driverClassName;
 
-        setTargetDataSources(tenantDataSources);
+        // Tenant targets are served from tenantPools; only the default target goes through the base class
+        setTargetDataSources(Map.of());
         if (defaultDbName != null && !defaultDbName.isBlank()) {
-            setDefaultTargetDataSource(createDataSource(defaultDbName, "default"));
+            setDefaultTargetDataSource(createDataSource(defaultDbName, "default", maximumPoolSize));
         }
         afterPropertiesSet();
     }
 
+    /**
+     * Resolves a tenant code to its database name (empty if the tenant is unknown)
+     */
+    public void setTenantDatabaseResolver(Function<String, Optional<String>> tenantDatabaseResolver) {
+        this.tenantDatabaseResolver = tenantDatabaseResolver;
+    }
+
+    /**
+     * Resolves a tenant code to its pool size (null for the default maximum pool size)
+     */
+    public void setPoolSizeResolver(Function<String, Integer> poolSizeResolver) {
+        this.poolSizeResolver = poolSizeResolver;
+    }
+
+    /**
+     * Registry for the per-tenant gate metrics; resolved when the first tenant pool is created
+     */
+    public void setMeterRegistrySupplier(Supplier<MeterRegistry> meterRegistrySupplier) {
+        this.meterRegistrySupplier = meterRegistrySupplier;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    /**
+     * How long Hikari waits for a physical connection (once the gate has admitted the checkout)
+     */
+    public void setConnectionTimeoutMs(long connectionTimeoutMs) {
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    /**
+     * Upper bound for the sum of maximum pool sizes across all tenant pools on this node
+     */
+    public void setMaxTotalConnections(int maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+    }
+
+    /**
+     * Tenant pools unused for longer than this are retired by {@link #evictIdleTenants()}
+     */
+    public void setPoolIdleTimeoutMs(long poolIdleTimeoutMs) {
+        this.poolIdleTimeoutMs = poolIdleTimeoutMs;
+    }
+
+    /**
+     * Gate tenant pool checkouts behind a fair semaphore with one permit per pool connection
+     */
+    public void setConnectionGateEnabled(boolean connectionGateEnabled) {
+        this.connectionGateEnabled = connectionGateEnabled;
+    }
+
+    /**
+     * How long a checkout waits for a gate permit before failing
+     */
+    public void setConnectionGateTimeoutMs(long connectionGateTimeoutMs) {
+        this.connectionGateTimeoutMs = connectionGateTimeoutMs;
+    }
+
+    /**
+     * Waiting checkouts allowed per pool connection before further ones are rejected outright
+     */
+    public void setMaxWaitersPerConnection(int maxWaitersPerConnection) {
+        this.maxWaitersPerConnection = maxWaitersPerConnection;
+    }
+
+    /**
+     * Retry-After hint carried by rejected checkouts
+     */
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
         String tenantId = TenantContext.getTenantId();
@@ -46,59 +188,454 @@ public class TenantRoutingDataSource extends AbstractRoutingDataSource {
         return tenantId;
     }
 
+    @Override
+    protected DataSource determineTargetDataSource() {
+        Object lookupKey = determineCurrentLookupKey();
+        TenantPool pool;
+        try {
+            pool = resolveTenantPool(lookupKey);
+        } catch (TenantConnectionLimitException ex) {
+            throw new CannotGetJdbcConnectionException(ex.getMessage(), ex);
+        }
+        return pool != null ? pool.dataSource : defaultDataSource(lookupKey);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object lookupKey = determineCurrentLookupKey();
+        TenantPool pool = resolveTenantPool(lookupKey);
+
+        if (pool == null) {
+            return defaultDataSource(lookupKey).getConnection();
+        }
+
+        try {
+            return checkout(pool);
+        } catch (SQLException ex) {
+            if (!pool.dataSource.isClosed()) {
+                throw ex;
+            }
+            // Retired and closed after it was resolved: route again to the tenant's live pool
+            log.debug("Datasource of tenant {} closed during checkout, routing again", pool.tenantCode);
+            TenantPool current = resolveTenantPool(lookupKey);
+            return current != null ? checkout(current) : defaultDataSource(lookupKey).getConnection();
+        }
+    }
+
     /**
      * Dynamically creates and registers a new tenant datasource
+     *
+     * @throws TenantConnectionLimitException if the connection budget is exhausted
      */
-    public void addTenant(String tenantCode, String dbName) {
-        if (tenantDataSources.containsKey(tenantCode)) {
+    public void addTenant(String tenantCode, String dbName) throws TenantConnectionLimitException {
+        if (tenantPools.containsKey(tenantCode)) {
             log.info("Tenant datasource already exists: {}", tenantCode);
             return;
         }
 
-        log.info("Creating new datasource for tenant: {} -> {}", tenantCode, dbName);
+        register(tenantCode, dbName);
+    }
 
-        DataSource dataSource = createDataSource(dbName, tenantCode);
-        tenantDataSources.put(tenantCode, dataSource);
+    /**
+     * Removes a tenant datasource (closed once in-flight checkouts have drained)
+     */
+    public void removeTenant(String tenantCode) {
+        registryLock.lock();
+        try {
+            TenantPool pool = tenantPools.remove(tenantCode);
 
-        // Refresh the routing datasource
-        setTargetDataSources(tenantDataSources);
-        afterPropertiesSet();
+            if (pool != null) {
+                log.info("Retiring datasource for tenant: {}", tenantCode);
+                retire(pool);
+            }
+        } finally {
+            registryLock.unlock();
+        }
+    }
 
-        log.info("Successfully added tenant datasource: {}", tenantCode);
+    public boolean tenantExists(String tenantCode) {
+        return tenantPools.containsKey(tenantCode);
     }
 
     /**
-     * Removes a tenant datasource
+     * Retires tenant pools that have not been used within the idle timeout and have
+     * no connections checked out, and closes retired pools that have drained
+     *
+     * @return number of pools retired
      */
-    public void removeTenant(String tenantCode) {
-        Object dataSourceObj = tenantDataSources.remove(tenantCode);
+    public int evictIdleTenants() {
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(poolIdleTimeoutMs);
+        int evicted = 0;
 
-        if (dataSourceObj instanceof HikariDataSource hikariDataSource) {
-            log.info("Closing datasource for tenant: {}", tenantCode);
-            hikariDataSource.close();
+        registryLock.lock();
+        try {
+            for (Map.Entry<String, TenantPool> entry : tenantPools.entrySet()) {
+                TenantPool pool = entry.getValue();
+                if (now - pool.lastAccess > idleTimeoutNanos && pool.activeConnections() == 0
+                        && tenantPools.remove(entry.getKey(), pool)) {
+                    log.info("Evicting idle datasource for tenant: {}", entry.getKey());
+                    retire(pool);
+                    evicted++;
+                }
+            }
+        } finally {
+            registryLock.unlock();
         }
+        closeDrainedPools();
 
-        setTargetDataSources(tenantDataSources);
-        afterPropertiesSet();
+        return evicted;
     }
 
-    public boolean tenantExists(String tenantCode) {
-        return tenantDataSources.containsKey(tenantCode);
+    /**
+     * Closes all tenant pools (invoked by Spring on context shutdown)
+     */
+    public void close() {
+        registryLock.lock();
+        try {
+            for (String tenantCode : new ArrayList<>(tenantPools.keySet())) {
+                TenantPool pool = tenantPools.remove(tenantCode);
+                if (pool != null) {
+                    pool.removeMeters();
+                    closePool(pool);
+                }
+            }
+            TenantPool retired;
+            while ((retired = retiredPools.poll()) != null) {
+                closePool(retired);
+            }
+        } finally {
+            registryLock.unlock();
+        }
+        if (getResolvedDefaultDataSource() instanceof HikariDataSource defaultDataSource) {
+            defaultDataSource.close();
+        }
     }
 
-    private DataSource createDataSource(String dbName, String tenantCode) {
+    private TenantPool resolveTenantPool(Object lookupKey) throws TenantConnectionLimitException {
+        if (lookupKey instanceof String tenantCode && !DEFAULT_TENANT.equals(tenantCode)) {
+            TenantPool pool = tenantPools.get(tenantCode);
+            if (pool == null) {
+                pool = registerTenant(tenantCode);
+            }
+            if (pool != null) {
+                pool.lastAccess = System.nanoTime();
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    private DataSource defaultDataSource(Object lookupKey) {
+        DataSource defaultDataSource = getResolvedDefaultDataSource();
+        if (defaultDataSource == null) {
+            throw new IllegalStateException("Cannot determine target DataSource for lookup key [" + lookupKey + "]");
+        }
+        return defaultDataSource;
+    }
+
+    private Connection checkout(TenantPool pool) throws SQLException {
+        if (!connectionGateEnabled) {
+            return pool.dataSource.getConnection();
+        }
+
+        acquirePermit(pool);
+        try {
+            return releasingOnClose(pool.dataSource.getConnection(), pool.permits);
+        } catch (SQLException | RuntimeException ex) {
+            pool.permits.release();
+            throw ex;
+        }
+    }
+
+    private void acquirePermit(TenantPool pool) throws SQLException {
+        try {
+            // A zero timeout still honours the fair ordering, unlike tryAcquire()
+            if (pool.permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                pool.recordWait(0, "acquired");
+                return;
+            }
+
+            if (pool.waiting.incrementAndGet() > pool.maximumPoolSize * maxWaitersPerConnection) {
+                pool.waiting.decrementAndGet();
+                pool.recordWait(0, "rejected");
+                throw new TenantConnectionLimitException(pool.tenantCode, "connection queue full", retryAfterSeconds);
+            }
+
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = pool.permits.tryAcquire(connectionGateTimeoutMs, TimeUnit.MILLISECONDS);
+            } finally {
+                pool.waiting.decrementAndGet();
+            }
+
+            pool.recordWait(System.nanoTime() - start, acquired ? "acquired" : "timeout");
+            if (!acquired) {
+                throw new TenantConnectionLimitException(pool.tenantCode,
+                        "no connection within " + connectionGateTimeoutMs + "ms", retryAfterSeconds);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection of tenant "
+                    + pool.tenantCode, ex);
+        }
+    }
+
+    /**
+     * Returns the gate permit when the caller closes the connection (once, however often close is called)
+     */
+    private static Connection releasingOnClose(Connection connection, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private TenantPool registerTenant(String tenantCode) throws TenantConnectionLimitException {
+        Long unknownSince = unknownTenants.get(tenantCode);
+        if (unknownSince != null
+                && System.nanoTime() - unknownSince < TimeUnit.MILLISECONDS.toNanos(UNKNOWN_TENANT_RETRY_MS)) {
+            return null;
+        }
+
+        Optional<String> dbName;
+        try {
+            dbName = tenantDatabaseResolver.apply(tenantCode);
+        } catch (RuntimeException ex) {
+            log.error("Failed to resolve database for tenant {}: {}", tenantCode, ex.getMessage());
+            return null;
+        }
+
+        if (dbName.isEmpty()) {
+            log.warn("No database registered for tenant: {}, using default datasource", tenantCode);
+            unknownTenants.put(tenantCode, System.nanoTime());
+            return null;
+        }
+
+        return register(tenantCode, dbName.get());
+    }
+
+    private TenantPool register(String tenantCode, String dbName) throws TenantConnectionLimitException {
+        int requestedSize = resolvePoolSize(tenantCode);
+
+        closeDrainedPools();
+
+        // Budget check and publication happen together; lookups of registered tenants never take this lock
+        registryLock.lock();
+        try {
+            TenantPool existing = tenantPools.get(tenantCode);
+            if (existing != null) {
+                return existing;
+            }
+
+            int size = reserveConnectionBudget(tenantCode, requestedSize);
+            log.info("Creating new datasource for tenant: {} -> {} ({} connections)", tenantCode, dbName, size);
+            TenantPool pool = new TenantPool(tenantCode, createDataSource(dbName, tenantCode, size), size,
+                    meterRegistrySupplier.get());
+            tenantPools.put(tenantCode, pool);
+
+            unknownTenants.remove(tenantCode);
+            log.debug("Tenant datasource registered: {} ({} tenant pools open)", tenantCode, tenantPools.size());
+            return pool;
+        } finally {
+            registryLock.unlock();
+        }
+    }
+
+    private int resolvePoolSize(String tenantCode) {
+        Integer poolSize;
+        try {
+            poolSize = poolSizeResolver.apply(tenantCode);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to resolve pool size for tenant {}: {}", tenantCode, ex.getMessage());
+            poolSize = null;
+        }
+        return poolSize != null && poolSize > 0 ? poolSize : maximumPoolSize;
+    }
+
+    /**
+     * Retires least recently used idle pools until a pool of the requested size fits into the budget
+     * (caller holds the registry lock)
+     *
+     * @return the granted pool size: the requested size, or what is left of the budget
+     * @throws TenantConnectionLimitException if nothing is left of the budget
+     */
+    private int reserveConnectionBudget(String tenantCode, int requestedSize) throws TenantConnectionLimitException {
+        while (allocatedConnections() + requestedSize > maxTotalConnections) {
+            String lruTenant = null;
+            TenantPool lruPool = null;
+
+            for (Map.Entry<String, TenantPool> entry : tenantPools.entrySet()) {
+                TenantPool pool = entry.getValue();
+                if ((lruPool == null || pool.lastAccess < lruPool.lastAccess) && pool.activeConnections() == 0) {
+                    lruTenant = entry.getKey();
+                    lruPool = pool;
+                }
+            }
+
+            if (lruPool == null) {
+                int remaining = maxTotalConnections - allocatedConnections();
+                if (remaining < 1) {
+                    log.warn("Tenant connection budget of {} exhausted and no idle pool can be evicted; "
+                            + "rejecting datasource for tenant {}", maxTotalConnections, tenantCode);
+                    throw new TenantConnectionLimitException(tenantCode, "connection budget exhausted",
+                            retryAfterSeconds);
+                }
+                log.warn("Tenant connection budget of {} nearly exhausted and no idle pool can be evicted; "
+                        + "tenant {} gets {} of {} connections", maxTotalConnections, tenantCode,
+                        remaining, requestedSize);
+                return remaining;
+            }
+
+            tenantPools.remove(lruTenant, lruPool);
+            log.info("Evicting least recently used datasource for tenant: {}", lruTenant);
+            retire(lruPool);
+        }
+        return requestedSize;
+    }
+
+    /**
+     * Connections the budget accounts for: registered pools at their maximum size, plus whatever
+     * retired pools still have checked out
+     */
+    int allocatedConnections() {
+        int allocated = 0;
+        for (TenantPool pool : tenantPools.values()) {
+            allocated += pool.maximumPoolSize;
+        }
+        for (TenantPool pool : retiredPools) {
+            allocated += pool.activeConnections();
+        }
+        return allocated;
+    }
+
+    /**
+     * Takes a pool out of service (caller has removed it from the registry and holds the registry lock):
+     * idle connections are closed now, in-use ones when returned, and the pool itself by {@link #closeDrainedPools()}
+     */
+    private void retire(TenantPool pool) {
+        pool.retiredAt = System.nanoTime();
+        pool.removeMeters();
+        pool.dataSource.getHikariConfigMXBean().setMinimumIdle(0);
+        HikariPoolMXBean hikariPool = pool.dataSource.getHikariPoolMXBean();
+        if (hikariPool != null) {
+            hikariPool.softEvictConnections();
+        }
+        retiredPools.add(pool);
+    }
+
+    /**
+     * Closes retired pools once nothing is checked out or queued and the grace period has passed; a
+     * request that resolved the pool before it was retired is done waiting (gate + Hikari timeout) by then.
+     * Runs without the registry lock, as closing blocks on the pool's connections; removal from the queue
+     * decides which caller closes a pool
+     */
+    private void closeDrainedPools() {
+        long now = System.nanoTime();
+        long graceNanos = TimeUnit.MILLISECONDS.toNanos(connectionGateTimeoutMs + connectionTimeoutMs);
+
+        for (TenantPool pool : retiredPools) {
+            if (now - pool.retiredAt > graceNanos && pool.activeConnections() == 0 && pool.waiting.get() == 0
+                    && retiredPools.remove(pool)) {
+                log.debug("Closing retired datasource for tenant: {}", pool.tenantCode);
+                closePool(pool);
+            }
+        }
+    }
+
+    private void closePool(TenantPool pool) {
+        pool.dataSource.close();
+    }
+
+    private HikariDataSource createDataSource(String dbName, String tenantCode, int poolSize) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(datasourceUrlPrefix + dbName);
         config.setUsername(datasourceUsername);
         config.setPassword(datasourcePassword);
         config.setDriverClassName(datasourceDriverClassName);
-        config.setMaximumPoolSize(5);
-        config.setMinimumIdle(1);
-        config.setConnectionTimeout(30000);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(Math.min(minimumIdle, poolSize));
+        config.setConnectionTimeout(connectionTimeoutMs);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
         config.setPoolName("HikariPool-" + tenantCode);
+        // Connections are opened in the background, so creating a pool under the registration lock stays cheap
+        config.setInitializationFailTimeout(-1);
 
         return new HikariDataSource(config);
     }
+
+    /**
+     * Registered tenant pool with its checkout gate, gate metrics, last routing time and, once
+     * retired, retirement time (System.nanoTime)
+     */
+    private static final class TenantPool {
+
+        private final String tenantCode;
+        private final HikariDataSource dataSource;
+        private final int maximumPoolSize;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final MeterRegistry meterRegistry;
+        private final Gauge queueDepth;
+        private final Timer acquiredWait;
+        private volatile long lastAccess;
+        private volatile long retiredAt;
+
+        private TenantPool(String tenantCode, HikariDataSource dataSource, int maximumPoolSize,
+                           MeterRegistry meterRegistry) {
+            this.tenantCode = tenantCode;
+            this.dataSource = dataSource;
+            this.maximumPoolSize = maximumPoolSize;
+            this.permits = new Semaphore(maximumPoolSize, true);
+            this.meterRegistry = meterRegistry;
+            this.queueDepth = meterRegistry == null ? null
+                    : Gauge.builder("tenant.connections.queue.depth", waiting, AtomicInteger::get)
+                    .tag("tenant", tenantCode)
+                    .register(meterRegistry);
+            this.acquiredWait = meterRegistry == null ? null : waitTimer("acquired");
+            this.lastAccess = System.nanoTime();
+        }
+
+        private void recordWait(long nanos, String outcome) {
+            if (meterRegistry != null) {
+                Timer timer = "acquired".equals(outcome) ? acquiredWait : waitTimer(outcome);
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer waitTimer(String outcome) {
+            return Timer.builder("tenant.connections.wait")
+                    .tags("tenant", tenantCode, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        // Dropped when the pool is retired so a re-created pool registers a gauge on its own counter
+        private void removeMeters() {
+            if (queueDepth != null) {
+                meterRegistry.remove(queueDepth);
+            }
+        }
+
+        private int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.metafit.tenancy;
+
+import com.metafit.enums.TenantStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of the master-DB state needed to admit a tenant request
+ *
+ * @param subscriptionEndDate end of the current subscription (null if the tenant has none)
+ * @param graceEndDate        last moment access is allowed after the subscription ended
+ * @param subscriptionActive  false if the subscription was suspended or cancelled
+ */
+public record TenantSnapshot(
+        Long id,
+        String code,
+        String dbName,
+        TenantStatus status,
+        String planCode,
+        LocalDateTime subscriptionEndDate,
+        LocalDateTime graceEndDate,
+        boolean subscriptionActive) {
+
+    public boolean hasSubscription() {
+        return subscriptionEndDate != null;
+    }
+
+    public boolean isSubscriptionExpired(LocalDateTime now) {
+        return hasSubscription() && now.isAfter(subscriptionEndDate);
+    }
+
+    public boolean isGracePeriodOver(LocalDateTime now) {
+        return hasSubscription() && now.isAfter(graceEndDate);
+    }
+}
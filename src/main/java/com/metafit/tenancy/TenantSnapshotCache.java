@@ -0,0 +1,101 @@
+package com.metafit.tenancy;
+
+import com.metafit.cache.TenantStateMap;
+import com.metafit.entity.master.Subscription;
+import com.metafit.entity.master.Tenant;
+import com.metafit.repository.master.SubscriptionRepository;
+import com.metafit.repository.master.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * In-memory cache of tenant status and subscription state (code -> snapshot)
+ *
+ * Keeps the master DB off the per-request path: a tenant is loaded at most once
+ * per TTL, outside any map lock, unknown codes are cached negatively, and writers
+ * that change tenant state call {@link #invalidate(String)} once they have committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TenantSnapshotCache {
+
+    private final TenantRepository tenantRepository;
+    private final SubscriptionRepository subscriptionRepository;
+
+    private final TenantStateMap<CacheEntry> entries = new TenantStateMap<>();
+
+    @Value("${tenant.snapshot-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${tenant.snapshot-cache.negative-ttl-ms:30000}")
+    private long negativeTtlMs;
+
+    @Value("${subscription.grace-period-days:7}")
+    private int gracePeriodDays;
+
+    /**
+     * Get the snapshot for a tenant code, loading it from the master DB on a miss
+     *
+     * @return empty if no tenant exists with this code
+     */
+    public Optional<TenantSnapshot> get(String tenantCode) {
+        CacheEntry entry = entries.get(tenantCode,
+                existing -> existing.expiresAt() > System.currentTimeMillis(),
+                code -> load(code, System.currentTimeMillis()));
+
+        return Optional.ofNullable(entry.snapshot());
+    }
+
+    /**
+     * Drop the cached snapshot of a tenant code
+     */
+    public void invalidate(String tenantCode) {
+        entries.remove(tenantCode);
+        log.debug("Invalidated tenant snapshot: {}", tenantCode);
+    }
+
+    private CacheEntry load(String tenantCode, long now) {
+        Tenant tenant = tenantRepository.findByCode(tenantCode).orElse(null);
+
+        if (tenant == null) {
+            log.debug("Caching unknown tenant code: {}", tenantCode);
+            return new CacheEntry(null, now + negativeTtlMs);
+        }
+
+        Subscription subscription = subscriptionRepository
+                .findFirstByTenantIdOrderByEndDateDesc(tenant.getId())
+                .orElse(null);
+
+        TenantSnapshot snapshot = subscription == null
+                ? new TenantSnapshot(tenant.getId(), tenant.getCode(), tenant.getDbName(), tenant.getStatus(),
+                null, null, null, true)
+                : new TenantSnapshot(tenant.getId(), tenant.getCode(), tenant.getDbName(), tenant.getStatus(),
+                subscription.getPlan() != null ? subscription.getPlan().getCode() : null,
+                subscription.getEndDate(),
+                graceEndDate(subscription),
+                isSubscriptionActive(subscription));
+
+        log.debug("Loaded tenant snapshot: {}", snapshot);
+        return new CacheEntry(snapshot, now + ttlMs);
+    }
+
+    private LocalDateTime graceEndDate(Subscription subscription) {
+        return subscription.getGraceEndDate() != null
+                ? subscription.getGraceEndDate()
+                : subscription.getEndDate().plusDays(gracePeriodDays);
+    }
+
+    private boolean isSubscriptionActive(Subscription subscription) {
+        return subscription.getStatus() != Subscription.SubscriptionStatus.SUSPENDED
+                && subscription.getStatus() != Subscription.SubscriptionStatus.CANCELLED;
+    }
+
+    private record CacheEntry(TenantSnapshot snapshot, long expiresAt) {
+    }
+}
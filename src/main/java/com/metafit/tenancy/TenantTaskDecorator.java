@@ -0,0 +1,18 @@
+package com.metafit.tenancy;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's tenant into tasks run by Spring task executors
+ *
+ * Applied to the auto-configured executor behind {@code @Async}; the worker's previous
+ * binding is restored afterwards, so pooled threads never leak a tenant into the next task
+ * and caller-runs fallbacks keep the caller's tenant.
+ */
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TenantContext.wrap(runnable);
+    }
+}
@@ -0,0 +1,5 @@
+-- Migration V5: Index devices.api_key for webhook authentication
+-- The application answers most lookups from memory; this covers index reloads and cache misses
+
+CREATE INDEX IF NOT EXISTS idx_devices_api_key
+ON devices (api_key);
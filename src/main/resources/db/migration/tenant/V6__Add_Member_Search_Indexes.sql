@@ -0,0 +1,14 @@
+-- Migration V6: Indexed member search
+-- Trigram GIN index serves substring/ranked name search; the reversed-phone index
+-- serves "last digits" lookups from the front desk and the plain one phone prefixes
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_members_full_name_trgm
+ON members USING gin (lower(full_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_members_phone_reverse
+ON members (reverse(phone) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_members_phone_prefix
+ON members (phone text_pattern_ops);
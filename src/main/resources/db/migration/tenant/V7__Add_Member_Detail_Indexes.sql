@@ -0,0 +1,10 @@
+-- Migration V7: Per-member indexes on attendance and payments
+-- Profile statistics are read from member_stats (V8); these serve the per-member lookups that
+-- still go to the base tables: attendance history and date ranges, open check-in checks,
+-- payment history and totals, and the member_stats backfill and rebuild
+
+CREATE INDEX IF NOT EXISTS idx_attendance_member_check_in
+ON attendance (member_id, check_in_time);
+
+CREATE INDEX IF NOT EXISTS idx_payments_member_id
+ON payments (member_id);
@@ -0,0 +1,44 @@
+-- Migration V8: Per-member attendance and payment rollup
+-- Maintained on check-in, check-out and payment writes; backfilled here from history.
+-- visits_this_month counts check-ins in month_start's month and reads as 0 once that month is over.
+
+CREATE TABLE IF NOT EXISTS member_stats (
+    member_id BIGINT PRIMARY KEY REFERENCES members (id),
+    total_visits BIGINT NOT NULL DEFAULT 0,
+    month_start DATE NOT NULL,
+    visits_this_month BIGINT NOT NULL DEFAULT 0,
+    last_check_in TIMESTAMP,
+    completed_visits BIGINT NOT NULL DEFAULT 0,
+    total_duration_minutes BIGINT NOT NULL DEFAULT 0,
+    total_paid NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO member_stats (member_id, total_visits, month_start, visits_this_month, last_check_in,
+                          completed_visits, total_duration_minutes, total_paid, updated_at)
+SELECT m.id,
+       COALESCE(a.total_visits, 0),
+       date_trunc('month', CURRENT_DATE)::date,
+       COALESCE(a.visits_this_month, 0),
+       a.last_check_in,
+       COALESCE(a.completed_visits, 0),
+       COALESCE(a.total_duration_minutes, 0),
+       COALESCE(p.total_paid, 0),
+       now()
+FROM members m
+LEFT JOIN (
+    SELECT member_id,
+           COUNT(*) AS total_visits,
+           COUNT(*) FILTER (WHERE check_in_time >= date_trunc('month', CURRENT_DATE)) AS visits_this_month,
+           MAX(check_in_time) AS last_check_in,
+           COUNT(check_out_time) AS completed_visits,
+           COALESCE(SUM(EXTRACT(EPOCH FROM (check_out_time - check_in_time))::bigint / 60), 0) AS total_duration_minutes
+    FROM attendance
+    GROUP BY member_id
+) a ON a.member_id = m.id
+LEFT JOIN (
+    SELECT member_id, SUM(amount) AS total_paid
+    FROM payments
+    GROUP BY member_id
+) p ON p.member_id = m.id
+ON CONFLICT (member_id) DO NOTHING;
@@ -0,0 +1,18 @@
+-- Migration V9: Daily revenue rollup per payment method
+-- Maintained in the same transaction as each payment; backfilled here from history.
+-- Revenue reports read one row per day and method instead of scanning payments.
+
+CREATE TABLE IF NOT EXISTS revenue_daily (
+    revenue_date DATE NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    total_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payment_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (revenue_date, payment_method)
+);
+
+INSERT INTO revenue_daily (revenue_date, payment_method, total_amount, payment_count, updated_at)
+SELECT payment_date::date, payment_method, SUM(amount), COUNT(*), now()
+FROM payments
+GROUP BY payment_date::date, payment_method
+ON CONFLICT (revenue_date, payment_method) DO NOTHING;
@@ -0,0 +1,92 @@
+package com.metafit.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token
+ *
+ * legacyFourParsesPerRequest is what JwtAuthenticationFilter and JwtUtil used to do: validate plus
+ * three claim getters, each deriving the signing key and building a parser again.
+ * fourParsesPerRequest is the same four verifications on the precomputed parser; singleParse is one
+ * verification, i.e. a cache miss; cachedParse is a cache hit.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-of-entropy";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 10000);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken("owner@gym.test", "GYM001", "OWNER");
+        jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public void legacyFourParsesPerRequest(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token).getExpiration());
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("tenant"));
+        blackhole.consume(legacyParse(token).get("role"));
+    }
+
+    @Benchmark
+    public void fourParsesPerRequest(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.getExpirationDateFromToken(token));
+        blackhole.consume(jwtUtil.getUsernameFromToken(token));
+        blackhole.consume(jwtUtil.getTenantFromToken(token));
+        blackhole.consume(jwtUtil.getRoleFromToken(token));
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> cachedParse() {
+        return jwtUtil.parseToken(token);
+    }
+
+    // The former JwtUtil.getClaimsFromToken: key and parser rebuilt on every call
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,194 @@
+package com.metafit.tenancy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tenant binding across scoped calls and thread hand-offs, without a database
+ */
+class TenantContextTest {
+
+    private static final int TENANTS = 8;
+    private static final int THREADS = 16;
+    private static final int TASKS = 2000;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void callWithTenantBindsTenantAndRestoresPreviousBinding() {
+        TenantContext.setTenantId("GYM1");
+
+        String inside = TenantContext.callWithTenant("GYM2", TenantContext::getTenantId);
+
+        assertThat(inside).isEqualTo("GYM2");
+        assertThat(TenantContext.getTenantId()).isEqualTo("GYM1");
+    }
+
+    @Test
+    void nestedScopesUnwindInOrder() {
+        List<String> seen = new ArrayList<>();
+
+        TenantContext.runWithTenant("GYM1", () -> {
+            seen.add(TenantContext.getTenantId());
+            TenantContext.runWithTenant("GYM2", () -> {
+                seen.add(TenantContext.getTenantId());
+                TenantContext.runWithTenant(null, () -> seen.add(TenantContext.getTenantId()));
+                seen.add(TenantContext.getTenantId());
+            });
+            seen.add(TenantContext.getTenantId());
+        });
+
+        assertThat(seen).containsExactly("GYM1", "GYM2", null, "GYM2", "GYM1");
+        assertThat(TenantContext.getTenantId()).isNull();
+    }
+
+    @Test
+    void bindingIsRestoredWhenTheActionThrows() {
+        TenantContext.setTenantId("GYM1");
+
+        assertThatThrownBy(() -> TenantContext.runWithTenant("GYM2", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(TenantContext.getTenantId()).isEqualTo("GYM1");
+    }
+
+    @Test
+    void wrappedRunnableRunsUnderTheSubmittersTenant() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantContext.setTenantId("GYM1");
+            CompletableFuture<String> seen = new CompletableFuture<>();
+
+            executor.execute(TenantContext.wrap(() -> {
+                seen.complete(TenantContext.getTenantId());
+            }));
+
+            assertThat(seen.get(5, TimeUnit.SECONDS)).isEqualTo("GYM1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void wrappedSupplierRunsUnderTheSubmittersTenant() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantContext.setTenantId("GYM1");
+            Supplier<String> query = TenantContext::getTenantId;
+
+            String seen = CompletableFuture.supplyAsync(TenantContext.wrap(query), executor).get(5, TimeUnit.SECONDS);
+
+            assertThat(seen).isEqualTo("GYM1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void wrapCapturesTenantAtWrapTimeNotAtRunTime() {
+        TenantContext.setTenantId("GYM1");
+        Supplier<String> wrapped = TenantContext.wrap((Supplier<String>) TenantContext::getTenantId);
+
+        TenantContext.setTenantId("GYM2");
+
+        assertThat(wrapped.get()).isEqualTo("GYM1");
+        assertThat(TenantContext.getTenantId()).isEqualTo("GYM2");
+    }
+
+    @Test
+    void wrappedTaskWithoutTenantRunsWithoutOneEvenOnABoundThread() {
+        Supplier<String> wrapped = TenantContext.wrap((Supplier<String>) TenantContext::getTenantId);
+
+        String seen = TenantContext.callWithTenant("GYM1", wrapped);
+
+        assertThat(seen).isNull();
+    }
+
+    @Test
+    void pooledThreadDoesNotLeakTenantIntoNextTask() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantContext.setTenantId("GYM1");
+            executor.submit(TenantContext.wrap(() -> { })).get(5, TimeUnit.SECONDS);
+
+            TenantContext.clear();
+            Future<String> next = executor.submit(TenantContext::getTenantId);
+
+            assertThat(next.get(5, TimeUnit.SECONDS)).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentMixedTenantTasksEachSeeOnlyTheirOwnTenant() throws Exception {
+        ExecutorService submitters = Executors.newFixedThreadPool(THREADS);
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS / 2);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<String> mismatches = new ConcurrentLinkedQueue<>();
+        List<Future<?>> submissions = new ArrayList<>();
+
+        try {
+            for (int s = 0; s < THREADS; s++) {
+                submissions.add(submitters.submit(() -> {
+                    start.await();
+                    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+                    for (int i = 0; i < TASKS / THREADS; i++) {
+                        String tenantCode = "GYM" + ThreadLocalRandom.current().nextInt(TENANTS);
+                        tasks.add(TenantContext.callWithTenant(tenantCode, () -> CompletableFuture.runAsync(
+                                TenantContext.wrap(() -> {
+                                    String seen = TenantContext.getTenantId();
+                                    if (!tenantCode.equals(seen)) {
+                                        mismatches.add(tenantCode + " ran as " + seen);
+                                    }
+                                }), workers)));
+                    }
+                    CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+                    if (TenantContext.getTenantId() != null) {
+                        mismatches.add("submitter left bound to " + TenantContext.getTenantId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> submission : submissions) {
+                submission.get(1, TimeUnit.MINUTES);
+            }
+
+            // Every worker thread is back to no tenant once its tasks are done
+            List<Future<String>> leftovers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                leftovers.add(workers.submit(TenantContext::getTenantId));
+            }
+            for (Future<String> leftover : leftovers) {
+                assertThat(leftover.get(5, TimeUnit.SECONDS)).isNull();
+            }
+        } finally {
+            submitters.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        assertThat(mismatches).isEmpty();
+    }
+}
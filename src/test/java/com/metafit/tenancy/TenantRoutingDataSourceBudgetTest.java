@@ -0,0 +1,70 @@
+package com.metafit.tenancy;
+
+import com.metafit.exception.TenantConnectionLimitException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Node-wide connection budget: busy pools cannot be evicted, so new tenants are shrunk and then rejected
+ */
+class TenantRoutingDataSourceBudgetTest {
+
+    private TenantRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new TenantRoutingDataSource("jdbc:h2:mem:", "sa", "", "org.h2.Driver", null);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(0);
+        dataSource.setMaxTotalConnections(3);
+        dataSource.setTenantDatabaseResolver(tenantCode -> Optional.of(tenantCode.toLowerCase() + "_db"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+        TenantContext.clear();
+    }
+
+    @Test
+    void newTenantGetsWhatIsLeftOfTheBudgetAndIsRejectedOnceNothingIsLeft() throws Exception {
+        try (Connection gym1 = connection("GYM1"); Connection gym2 = connection("GYM2")) {
+            // GYM1's pool of two is in use and cannot be evicted, so GYM2 is shrunk to the one connection left
+            assertThat(dataSource.allocatedConnections()).isEqualTo(3);
+
+            assertThatThrownBy(() -> connection("GYM3"))
+                    .isInstanceOf(TenantConnectionLimitException.class)
+                    .hasMessageContaining("connection budget exhausted");
+            assertThat(dataSource.tenantExists("GYM3")).isFalse();
+            assertThat(dataSource.allocatedConnections()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void idlePoolIsEvictedToMakeRoomInsteadOfRejecting() throws Exception {
+        connection("GYM1").close();
+
+        try (Connection gym2 = connection("GYM2")) {
+            assertThat(dataSource.tenantExists("GYM1")).isFalse();
+            assertThat(dataSource.tenantExists("GYM2")).isTrue();
+            assertThat(dataSource.allocatedConnections()).isEqualTo(2);
+        }
+    }
+
+    private Connection connection(String tenantCode) throws SQLException {
+        TenantContext.setTenantId(tenantCode);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
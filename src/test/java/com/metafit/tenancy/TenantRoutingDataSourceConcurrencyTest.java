@@ -0,0 +1,141 @@
+package com.metafit.tenancy;
+
+import com.metafit.exception.TenantConnectionLimitException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress tests for the tenant pool registry: registration, routing and eviction racing each other
+ *
+ * Tenant databases are H2 in-memory databases named after the tenant, so every checkout
+ * can be checked against the tenant it was routed for without a database server.
+ */
+class TenantRoutingDataSourceConcurrencyTest {
+
+    private static final int TENANTS = 12;
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 250;
+
+    private TenantRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new TenantRoutingDataSource("jdbc:h2:mem:", "sa", "", "org.h2.Driver", null);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(0);
+        dataSource.setConnectionTimeoutMs(5000);
+        dataSource.setConnectionGateTimeoutMs(2000);
+        dataSource.setPoolIdleTimeoutMs(0);
+        dataSource.setTenantDatabaseResolver(tenantCode -> Optional.of(tenantCode.toLowerCase() + "_db"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+        TenantContext.clear();
+    }
+
+    @Test
+    void concurrentFirstUseOfOneTenantRegistersOnePool() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> urls = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                urls.add(executor.submit(() -> {
+                    start.await();
+                    return connectionUrl("GYM1");
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> url : urls) {
+                assertThat(url.get(30, TimeUnit.SECONDS)).startsWith("jdbc:h2:mem:gym1_db");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(dataSource.tenantExists("GYM1")).isTrue();
+        assertThat(dataSource.allocatedConnections()).isEqualTo(2);
+    }
+
+    @Test
+    void registrationRoutingAndEvictionRaceWithoutMisroutingOrClosedPools() throws Exception {
+        // Room for four pools out of twelve tenants, so registrations keep evicting each other
+        dataSource.setMaxTotalConnections(8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> workers = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        String tenantCode = "GYM" + ThreadLocalRandom.current().nextInt(TENANTS);
+                        try {
+                            String url = connectionUrl(tenantCode);
+                            if (!url.startsWith("jdbc:h2:mem:" + tenantCode.toLowerCase() + "_db")) {
+                                failures.add(new AssertionError(tenantCode + " routed to " + url));
+                            }
+                        } catch (TenantConnectionLimitException ex) {
+                            // Admission control under contention, not a registry failure
+                        } catch (SQLException | RuntimeException ex) {
+                            failures.add(ex);
+                        }
+                        if (i % 25 == 0) {
+                            dataSource.evictIdleTenants();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+
+        // Nothing is checked out any more, so every pool can be retired and the budget is fully released
+        dataSource.evictIdleTenants();
+        for (int i = 0; i < TENANTS; i++) {
+            assertThat(dataSource.tenantExists("GYM" + i)).isFalse();
+        }
+        assertThat(dataSource.allocatedConnections()).isZero();
+    }
+
+    private String connectionUrl(String tenantCode) throws SQLException {
+        TenantContext.setTenantId(tenantCode);
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.metafit.tenancy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tenant propagation through a decorated Spring task executor, as used behind {@code @Async}
+ */
+class TenantTaskDecoratorTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        TenantContext.clear();
+    }
+
+    @Test
+    void taskRunsUnderTheSubmittersTenant() throws Exception {
+        TenantContext.setTenantId("GYM1");
+
+        String seen = executor.submit(TenantContext::getTenantId).get(5, TimeUnit.SECONDS);
+
+        assertThat(seen).isEqualTo("GYM1");
+    }
+
+    @Test
+    void tasksFromDifferentTenantsSharingWorkersStayIsolated() throws Exception {
+        Queue<String> mismatches = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            String tenantCode = "GYM" + (i % 5);
+            TenantContext.runWithTenant(tenantCode, () -> tasks.add(executor.submitCompletable(() -> {
+                String seen = TenantContext.getTenantId();
+                if (!tenantCode.equals(seen)) {
+                    mismatches.add(tenantCode + " ran as " + seen);
+                }
+                return null;
+            })));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void workerIsBackToNoTenantAfterATask() throws Exception {
+        TenantContext.setTenantId("GYM1");
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        TenantContext.clear();
+
+        List<String> seen = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            seen.add(executor.submit(TenantContext::getTenantId).get(5, TimeUnit.SECONDS));
+        }
+
+        assertThat(seen).containsOnlyNulls();
+    }
+
+    @Test
+    void callerRunsFallbackKeepsTheCallersTenant() throws Exception {
+        ThreadPoolTaskExecutor saturated = new ThreadPoolTaskExecutor();
+        saturated.setCorePoolSize(1);
+        saturated.setMaxPoolSize(1);
+        saturated.setQueueCapacity(0);
+        saturated.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        saturated.setTaskDecorator(new TenantTaskDecorator());
+        saturated.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            TenantContext.setTenantId("GYM1");
+            saturated.execute(() -> awaitQuietly(release));
+
+            // The only worker is busy, so this one runs on the calling thread under GYM2
+            List<String> seen = new ArrayList<>();
+            TenantContext.runWithTenant("GYM2", () -> saturated.execute(() -> seen.add(TenantContext.getTenantId())));
+
+            assertThat(seen).containsExactly("GYM2");
+            assertThat(TenantContext.getTenantId()).isEqualTo("GYM1");
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}